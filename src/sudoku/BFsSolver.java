@@ -9,39 +9,58 @@ public class BFsSolver {
 
     // Method to solve a Sudoku puzzle using BFS
     public List<int[][]> solveWithBFS(int[][] puzzle) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
         Queue<int[][]> queue = new LinkedList<>(); // Queue for BFS traversal
         List<int[][]> solutions = new ArrayList<>(); // To store all valid solutions
         queue.add(copyGrid(puzzle)); // Start with the initial puzzle state
         int iterations = 0; // Track how many states we explored
         boolean solutionFound = false; // Flag to indicate if a solution has been found
+        int level = 0; // Current BFS level (number of cells filled since the start)
 
         // BFS: Explore states level by level
         while (!queue.isEmpty()) {
-            iterations++; // Increment iteration counter
-            int[][] current = queue.poll(); // Get the current puzzle state from the queue
-
-            // Check if the current state is a valid solution
-            if (isSolved(current)) {
-                // If valid, add the solved puzzle to the solutions list
-                solutions.add(copyGrid(current));
-                solutionFound = true;
-                continue; // Continue exploring for additional solutions
-            }
+            int size = queue.size(); // Number of states at this level
+            BfsLevelEvent levelEvent = new BfsLevelEvent();
+            levelEvent.begin();
+
+            for (int n = 0; n < size; n++) {
+                iterations++; // Increment iteration counter
+                int[][] current = queue.poll(); // Get the current puzzle state from the queue
+
+                // Check if the current state is a valid solution
+                if (isSolved(current)) {
+                    // If valid, add the solved puzzle to the solutions list
+                    solutions.add(copyGrid(current));
+                    solutionFound = true;
+                    continue; // Continue exploring for additional solutions
+                }
 
-            // Locate the next empty cell in the puzzle grid
-            int[] emptyCell = findEmptyCell(current); 
-            if (emptyCell == null) continue; // If no empty cells are found, skip this state
+                // Locate the next empty cell in the puzzle grid
+                int[] emptyCell = findEmptyCell(current);
+                if (emptyCell == null) continue; // If no empty cells are found, skip this state
 
-            int row = emptyCell[0], col = emptyCell[1];
+                int row = emptyCell[0], col = emptyCell[1];
 
-            // Try placing numbers 1-9 in the empty cell
-            for (int num = 1; num <= 9; num++) {
-                if (isValidPlacement(current, row, col, num)) {
-                    int[][] next = copyGrid(current); // Create a copy of the current state to preserve immutability
-                    next[row][col] = num; // Place the number in the empty cell
-                    queue.add(next); // Add the modified state to the queue for further exploration
+                // Try placing numbers 1-9 in the empty cell
+                for (int num = 1; num <= 9; num++) {
+                    if (isValidPlacement(current, row, col, num)) {
+                        int[][] next = copyGrid(current); // Create a copy of the current state to preserve immutability
+                        next[row][col] = num; // Place the number in the empty cell
+                        queue.add(next); // Add the modified state to the queue for further exploration
+                    }
                 }
             }
+
+            // Record the completed level for Flight Recorder
+            if (levelEvent.shouldCommit()) {
+                levelEvent.engine = "BFS";
+                levelEvent.level = level;
+                levelEvent.nodesProcessed = size;
+                levelEvent.queueSize = queue.size();
+                levelEvent.commit();
+            }
+            level++;
         }
 
         // Reporting the results of BFS
@@ -58,6 +77,13 @@ public class BFsSolver {
 
         // Log the number of iterations it took to complete BFS
         System.out.println("BFS completed in " + iterations + " iterations.");
+        if (event.shouldCommit()) {
+            event.engine = "BFS";
+            event.clues = Utils.countClues(puzzle);
+            event.nodes = iterations;
+            event.solutions = solutions.size();
+            event.commit();
+        }
         return solutions;
     }
 
@@ -0,0 +1,275 @@
+package sudoku;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * BatchSolver.java
+ *
+ * Solves many puzzles together for bulk workloads of easy and medium puzzles.
+ *
+ * Puzzles are loaded in blocks into structure-of-arrays primitive buffers: for each cell, the
+ * candidate masks of all puzzles in the block sit next to each other (index cell * blockSize + p).
+ * Constraint propagation (naked singles and hidden singles) then runs in lockstep over the whole
+ * block, with the innermost loops walking contiguous memory across puzzles instead of chasing
+ * one int[][] at a time. Most easy and medium puzzles are solved by propagation alone; only the
+ * ones left with open cells are handed to individual search ({@link SolvingSession}).
+ * Blocks are independent, so they are processed in parallel.
+ */
+public class BatchSolver {
+    private static final int BLOCK_SIZE = 512; // Puzzles per block; keeps a block's buffers cache-sized
+
+    private final int gridSize;
+    private final int cellsPerGrid;
+    private final int full;             // Bits 1..gridSize set
+    private final int[] rowOf, colOf, boxOf; // Unit indices of each cell
+    private final int[][] unitCells;    // Cells of each unit: rows, then columns, then boxes
+
+    private long solvedByPropagation;   // Statistics from the last call to solveBatch
+    private long solvedBySearch;
+    private long unsolvable;
+
+    /**
+     * @param gridSize the size of the grids in the batch (e.g., 9); must be a perfect square up to 25
+     */
+    public BatchSolver(int gridSize) {
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (gridSize <= 0 || gridSize > 25 || boxSize * boxSize != gridSize) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.cellsPerGrid = gridSize * gridSize;
+        this.full = ((1 << gridSize) - 1) << 1;
+
+        rowOf = new int[cellsPerGrid];
+        colOf = new int[cellsPerGrid];
+        boxOf = new int[cellsPerGrid];
+        unitCells = new int[3 * gridSize][gridSize];
+        int[] filled = new int[3 * gridSize];
+        for (int cell = 0; cell < cellsPerGrid; cell++) {
+            rowOf[cell] = cell / gridSize;
+            colOf[cell] = cell % gridSize;
+            boxOf[cell] = (rowOf[cell] / boxSize) * boxSize + colOf[cell] / boxSize;
+            int row = rowOf[cell], col = gridSize + colOf[cell], box = 2 * gridSize + boxOf[cell];
+            unitCells[row][filled[row]++] = cell;
+            unitCells[col][filled[col]++] = cell;
+            unitCells[box][filled[box]++] = cell;
+        }
+    }
+
+    /**
+     * Solves every puzzle in the batch.
+     *
+     * @param puzzles the puzzles, with 0 for empty cells (not modified)
+     * @return one entry per puzzle, in the same order: a solution, or null if the puzzle has none
+     */
+    public List<int[][]> solveBatch(List<int[][]> puzzles) {
+        int[][][] results = new int[puzzles.size()][][];
+        int blocks = (puzzles.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] propagated = new long[blocks], searched = new long[blocks];
+
+        IntStream.range(0, blocks).parallel().forEach(b -> {
+            int from = b * BLOCK_SIZE, to = Math.min(puzzles.size(), from + BLOCK_SIZE);
+            Block block = new Block(puzzles.subList(from, to));
+            block.propagate();
+            for (int p = 0; p < to - from; p++) {
+                int[][] solution = block.finish(p);
+                if (solution != null && block.isSolved(p)) propagated[b]++;
+                else if (solution != null) searched[b]++;
+                results[from + p] = solution;
+            }
+        });
+
+        solvedByPropagation = Arrays.stream(propagated).sum();
+        solvedBySearch = Arrays.stream(searched).sum();
+        unsolvable = puzzles.size() - solvedByPropagation - solvedBySearch;
+        System.out.println("Batch solved " + puzzles.size() + " puzzles: " + solvedByPropagation
+                + " by propagation, " + solvedBySearch + " by search, " + unsolvable + " unsolvable.");
+        return Arrays.asList(results);
+    }
+
+    public long getSolvedByPropagation() {
+        return solvedByPropagation;
+    }
+
+    public long getSolvedBySearch() {
+        return solvedBySearch;
+    }
+
+    public long getUnsolvable() {
+        return unsolvable;
+    }
+
+    /**
+     * Propagation state for one block of puzzles, stored as structure-of-arrays.
+     * Every per-cell array is indexed cell * size + puzzle, every per-unit array unit * size + puzzle.
+     * Rounds only visit the "active" puzzles: those that made progress in the previous round and
+     * still have open cells, so solved, stalled and dead puzzles stop costing anything. The cheap
+     * naked-singles pass runs on every active puzzle; the costlier hidden-singles pass only runs on
+     * the puzzles where naked singles made no progress.
+     */
+    private final class Block {
+        private final int size;         // Puzzles in this block
+        private final int[] candidates; // Candidate mask of each cell
+        private final int[] placed;     // Bit of the digit placed in each cell (0 = open)
+        private final int[] used;       // Digits placed in each unit, updated on every placement
+        private final int[] openCells;  // Open cells left in each puzzle
+        private final boolean[] dead;   // Puzzle reached a contradiction
+        private final boolean[] progress; // Puzzle placed a digit in the current round
+        private final int[] active;     // Puzzles still being propagated
+        private int activeCount;
+        private final int[] stuck;      // Active puzzles where naked singles made no progress this round
+        private int stuckCount;
+        private final int[] once, twice, inUnit; // Per-puzzle scratch for hidden singles
+
+        Block(List<int[][]> puzzles) {
+            size = puzzles.size();
+            candidates = new int[cellsPerGrid * size];
+            placed = new int[cellsPerGrid * size];
+            used = new int[3 * gridSize * size];
+            openCells = new int[size];
+            dead = new boolean[size];
+            progress = new boolean[size];
+            active = new int[size];
+            stuck = new int[size];
+            once = new int[size];
+            twice = new int[size];
+            inUnit = new int[size];
+
+            Arrays.fill(candidates, full);
+            Arrays.fill(openCells, cellsPerGrid);
+            for (int p = 0; p < size; p++) {
+                int[][] puzzle = puzzles.get(p);
+                if (puzzle.length != gridSize) throw new IllegalArgumentException("Expected a " + gridSize + "x" + gridSize + " grid");
+                for (int cell = 0; cell < cellsPerGrid; cell++) {
+                    int value = puzzle[rowOf[cell]][colOf[cell]];
+                    if (value == 0) continue;
+                    if (value < 0 || value > gridSize) throw new IllegalArgumentException("Invalid value " + value);
+                    place(cell, p, 1 << value);
+                }
+                if (!dead[p] && openCells[p] > 0) active[activeCount++] = p;
+            }
+        }
+
+        // Run lockstep propagation rounds until no active puzzle is left
+        void propagate() {
+            while (activeCount > 0) {
+                for (int k = 0; k < activeCount; k++) progress[active[k]] = false;
+                nakedSingles();
+
+                // Puzzles that placed nothing try hidden singles; the rest go straight to the next round
+                int kept = 0;
+                stuckCount = 0;
+                for (int k = 0; k < activeCount; k++) {
+                    int p = active[k];
+                    if (dead[p] || openCells[p] == 0) continue;
+                    if (progress[p]) active[kept++] = p;
+                    else stuck[stuckCount++] = p;
+                }
+                activeCount = kept;
+                hiddenSingles();
+
+                // Puzzles that found a hidden single rejoin the active ones; the others have stalled
+                for (int k = 0; k < stuckCount; k++) {
+                    int p = stuck[k];
+                    if (progress[p] && !dead[p] && openCells[p] > 0) active[activeCount++] = p;
+                }
+            }
+        }
+
+        // Place a digit bit and add it to the cell's units; a digit already in one of them kills the puzzle
+        private void place(int cell, int p, int bit) {
+            int row = rowOf[cell] * size + p, col = (gridSize + colOf[cell]) * size + p, box = (2 * gridSize + boxOf[cell]) * size + p;
+            if (((used[row] | used[col] | used[box]) & bit) != 0) dead[p] = true;
+            used[row] |= bit;
+            used[col] |= bit;
+            used[box] |= bit;
+            placed[cell * size + p] = bit;
+            candidates[cell * size + p] = bit;
+            openCells[p]--;
+            progress[p] = true;
+        }
+
+        // Remove digits used by peers; place cells left with one candidate.
+        // Placements update the unit masks at once, so later cells in the same pass already see them.
+        private void nakedSingles() {
+            for (int cell = 0; cell < cellsPerGrid; cell++) {
+                int base = cell * size;
+                int row = rowOf[cell] * size, col = (gridSize + colOf[cell]) * size, box = (2 * gridSize + boxOf[cell]) * size;
+                for (int k = 0; k < activeCount; k++) {
+                    int p = active[k];
+                    if (placed[base + p] != 0) continue;
+                    int c = candidates[base + p] & ~(used[row + p] | used[col + p] | used[box + p]);
+                    candidates[base + p] = c;
+                    if (c == 0) {
+                        dead[p] = true;
+                    } else if ((c & (c - 1)) == 0) {
+                        used[row + p] |= c;
+                        used[col + p] |= c;
+                        used[box + p] |= c;
+                        placed[base + p] = c;
+                        openCells[p]--;
+                        progress[p] = true;
+                    }
+                }
+            }
+        }
+
+        // Place digits that fit in only one open cell of a row, column or box (stuck puzzles only)
+        private void hiddenSingles() {
+            for (int[] unit : unitCells) {
+                for (int k = 0; k < stuckCount; k++) {
+                    int p = stuck[k];
+                    once[p] = 0;
+                    twice[p] = 0;
+                    inUnit[p] = 0;
+                }
+                for (int cell : unit) {
+                    int base = cell * size;
+                    for (int k = 0; k < stuckCount; k++) {
+                        int p = stuck[k];
+                        int bit = placed[base + p];
+                        int c = candidates[base + p] & ~bit; // Placed cells hold only their own bit, so this is 0 for them
+                        twice[p] |= once[p] & c;
+                        once[p] |= c;
+                        inUnit[p] |= bit;
+                    }
+                }
+                for (int k = 0; k < stuckCount; k++) {
+                    int p = stuck[k];
+                    if ((once[p] | inUnit[p]) != full) dead[p] = true; // Some digit has nowhere to go
+                    once[p] &= ~twice[p] & ~inUnit[p]; // Reuse 'once' as the hidden-single digits
+                }
+                for (int cell : unit) {
+                    int base = cell * size;
+                    for (int k = 0; k < stuckCount; k++) {
+                        int p = stuck[k];
+                        int hidden = candidates[base + p] & once[p];
+                        if (hidden == 0 || placed[base + p] != 0 || dead[p]) continue;
+                        if ((hidden & (hidden - 1)) != 0) {
+                            dead[p] = true; // Two digits forced into the same cell
+                            continue;
+                        }
+                        place(cell, p, hidden);
+                    }
+                }
+            }
+        }
+
+        boolean isSolved(int p) {
+            return !dead[p] && openCells[p] == 0;
+        }
+
+        // Build the solution of puzzle p, falling back to individual search if cells are still open
+        int[][] finish(int p) {
+            if (dead[p]) return null;
+            int[][] grid = new int[gridSize][gridSize];
+            for (int cell = 0; cell < cellsPerGrid; cell++) {
+                int bit = placed[cell * size + p];
+                grid[rowOf[cell]][colOf[cell]] = bit == 0 ? 0 : Integer.numberOfTrailingZeros(bit);
+            }
+            if (isSolved(p)) return grid;
+            return new SolvingSession(grid).getSolution();
+        }
+    }
+}
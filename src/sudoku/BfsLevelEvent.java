@@ -0,0 +1,36 @@
+package sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for one completed BFS level in {@link BFsSolver} or {@link HybridSolver}.
+ * Shows how the frontier grows level by level, which is where BFS spends its memory.
+ */
+@Name("sudoku.BfsLevel")
+@Label("BFS Level")
+@Category({"Sudoku", "Solver"})
+@Description("One breadth-first search level processed by a solver")
+public class BfsLevelEvent extends Event {
+    @Label("Engine")
+    public String engine;
+
+    @Label("Level")
+    @Description("BFS level, starting at 0")
+    public int level;
+
+    @Label("Nodes Processed")
+    @Description("States taken from the queue at this level")
+    public int nodesProcessed;
+
+    @Label("Queue Size")
+    @Description("States queued for the next level")
+    public int queueSize;
+
+    @Label("Depth Limit")
+    @Description("DLS depth limit used at this level (Hybrid only, 0 otherwise)")
+    public int depthLimit;
+}
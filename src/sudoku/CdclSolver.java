@@ -0,0 +1,535 @@
+package sudoku;
+
+import java.util.*;
+
+/**
+ * CdclSolver.java
+ *
+ * A small, self-contained Conflict-Driven Clause Learning (CDCL) SAT solver.
+ * It is used as the engine behind {@link SatSolver}, but it knows nothing about Sudoku:
+ * clauses are added in DIMACS style (variables numbered from 1, negative numbers for negated literals).
+ *
+ * Techniques used:
+ * - Two watched literals per clause for fast unit propagation.
+ * - First-UIP conflict analysis with clause learning and local clause minimization.
+ * - VSIDS variable ordering kept in a binary heap, with phase saving.
+ * - Luby-sequence restarts and periodic reduction of the learnt clause database.
+ *
+ * Clauses may be added between calls to {@link #solve()}, which makes it possible to
+ * enumerate several models by blocking the previous one.
+ */
+public class CdclSolver {
+    private static final int RESTART_BASE = 100;    // Conflicts in the first restart interval
+    private static final double VAR_DECAY = 0.95;   // VSIDS activity decay factor
+    private static final double CLAUSE_DECAY = 0.999; // Learnt clause activity decay factor
+
+    // A clause is an array of internal literals; the first two are the watched ones
+    private static final class Clause {
+        final int[] lits;
+        final boolean learnt;
+        double activity;
+        boolean deleted;
+
+        Clause(int[] lits, boolean learnt) {
+            this.lits = lits;
+            this.learnt = learnt;
+        }
+    }
+
+    private int numVars;
+    private boolean ok = true; // Becomes false once the clause set is known to be unsatisfiable
+
+    // Per-variable state (internal literal = 2 * var + sign, sign 1 meaning negated)
+    private byte[] values = new byte[0];   // 0 = unassigned, 1 = true, -1 = false
+    private int[] levels = new int[0];     // Decision level each variable was assigned at
+    private Clause[] reasons = new Clause[0]; // Clause that implied the variable (null for decisions)
+    private boolean[] polarity = new boolean[0]; // Saved phase: true means last assigned negative
+    private boolean[] seen = new boolean[0];     // Scratch marks used during conflict analysis
+    private double[] activity = new double[0];   // VSIDS scores
+    private boolean[] model = new boolean[0];    // Last satisfying assignment
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ArrayList<Clause>[] watches = new ArrayList[0]; // Clauses watching each literal
+
+    private final List<Clause> clauses = new ArrayList<>(); // Original (problem) clauses
+    private final List<Clause> learnts = new ArrayList<>(); // Learnt clauses
+
+    // Assignment trail
+    private int[] trail = new int[0];
+    private int trailSize;
+    private final List<Integer> trailLimits = new ArrayList<>(); // Trail index at each decision level
+    private int propagateHead;
+
+    // VSIDS heap of unassigned variables ordered by activity
+    private int[] heap = new int[0];
+    private int[] heapIndex = new int[0];
+    private int heapSize;
+    private double varIncrement = 1.0;
+    private double clauseIncrement = 1.0;
+
+    // Statistics
+    private long decisions;
+    private long conflicts;
+    private long propagations;
+
+    /**
+     * Creates a new variable and returns its DIMACS number (starting at 1).
+     */
+    public int newVar() {
+        int v = numVars++;
+        if (numVars > values.length) grow(Math.max(16, numVars * 2));
+        heapIndex[v] = -1;
+        polarity[v] = true; // Prefer false first: most Sudoku variables are false in any model
+        heapInsert(v);
+        return v + 1;
+    }
+
+    /**
+     * Ensures the solver has at least the given number of variables.
+     *
+     * @param count the number of variables required
+     */
+    public void ensureVars(int count) {
+        while (numVars < count) newVar();
+    }
+
+    /**
+     * Adds a clause to the solver. Must be called outside of search (between calls to solve).
+     *
+     * @param dimacsLits the literals of the clause in DIMACS form (e.g. 3, -7, 12)
+     * @return false if the solver has become trivially unsatisfiable, true otherwise
+     */
+    public boolean addClause(int... dimacsLits) {
+        if (!ok) return false;
+        int[] lits = new int[dimacsLits.length];
+        int size = 0;
+
+        // Translate to internal literals, dropping false literals and detecting satisfied/tautological clauses
+        outer:
+        for (int d : dimacsLits) {
+            if (d == 0) throw new IllegalArgumentException("Literal 0 is not allowed in a clause");
+            int var = Math.abs(d) - 1;
+            ensureVars(var + 1);
+            int lit = 2 * var + (d < 0 ? 1 : 0);
+            int value = litValue(lit);
+            if (value > 0) return true;     // Clause is already satisfied at level 0
+            if (value < 0) continue;        // Literal is false at level 0, drop it
+            for (int i = 0; i < size; i++) {
+                if (lits[i] == lit) continue outer; // Duplicate literal
+                if (lits[i] == (lit ^ 1)) return true; // Tautology
+            }
+            lits[size++] = lit;
+        }
+
+        if (size == 0) return ok = false; // Empty clause: unsatisfiable
+        if (size == 1) {
+            assign(lits[0], null);
+            return ok = (propagate() == null);
+        }
+        Clause clause = new Clause(Arrays.copyOf(lits, size), false);
+        clauses.add(clause);
+        attach(clause);
+        return true;
+    }
+
+    /**
+     * Searches for a satisfying assignment of all clauses added so far.
+     *
+     * @return true if the formula is satisfiable; the model is then available through {@link #modelValue(int)}
+     */
+    public boolean solve() {
+        if (!ok) return false;
+        if (propagate() != null) return ok = false;
+
+        int restart = 0;
+        while (true) {
+            int budget = luby(restart++) * RESTART_BASE;
+            int result = search(budget);
+            if (result != 0) {
+                backtrack(0);
+                return result > 0;
+            }
+            reduceLearnts(); // Restart: a good moment to forget unhelpful learnt clauses
+        }
+    }
+
+    /**
+     * Returns the value of a variable in the last model found by {@link #solve()}.
+     *
+     * @param dimacsVar the variable number (starting at 1)
+     * @return true if the variable was assigned true
+     */
+    public boolean modelValue(int dimacsVar) {
+        return model[dimacsVar - 1];
+    }
+
+    public int getNumVars() {
+        return numVars;
+    }
+
+    public int getNumClauses() {
+        return clauses.size();
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getPropagations() {
+        return propagations;
+    }
+
+    /**
+     * Runs CDCL search until a model is found, unsatisfiability is proven, or the conflict budget runs out.
+     *
+     * @return 1 for satisfiable, -1 for unsatisfiable, 0 when the budget is exhausted (restart)
+     */
+    private int search(int conflictBudget) {
+        int conflictCount = 0;
+        List<Integer> learnt = new ArrayList<>();
+
+        while (true) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                conflicts++;
+                conflictCount++;
+                if (decisionLevel() == 0) {
+                    ok = false;
+                    return -1; // Conflict without any decision: unsatisfiable
+                }
+
+                learnt.clear();
+                int backtrackLevel = analyze(conflict, learnt);
+                backtrack(backtrackLevel);
+
+                if (learnt.size() == 1) {
+                    assign(learnt.get(0), null);
+                } else {
+                    int[] lits = new int[learnt.size()];
+                    for (int i = 0; i < lits.length; i++) lits[i] = learnt.get(i);
+                    Clause clause = new Clause(lits, true);
+                    learnts.add(clause);
+                    attach(clause);
+                    bumpClause(clause);
+                    assign(lits[0], clause);
+                }
+                varIncrement /= VAR_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+            } else {
+                if (conflictCount >= conflictBudget) {
+                    backtrack(0);
+                    return 0;
+                }
+
+                int next = pickBranchVar();
+                if (next < 0) {
+                    // Every variable is assigned without conflict: record the model
+                    if (model.length < numVars) model = new boolean[numVars];
+                    for (int v = 0; v < numVars; v++) model[v] = values[v] > 0;
+                    return 1;
+                }
+                decisions++;
+                trailLimits.add(trailSize);
+                assign(2 * next + (polarity[next] ? 1 : 0), null);
+            }
+        }
+    }
+
+    /**
+     * Propagates all pending assignments using the two-watched-literal scheme.
+     *
+     * @return the conflicting clause, or null if propagation completed without conflict
+     */
+    private Clause propagate() {
+        Clause conflict = null;
+        while (propagateHead < trailSize) {
+            int p = trail[propagateHead++];  // Literal that just became true
+            int falseLit = p ^ 1;            // Its negation just became false
+            ArrayList<Clause> list = watches[falseLit];
+            propagations++;
+
+            int i = 0, j = 0, n = list.size();
+            while (i < n) {
+                Clause c = list.get(i++);
+                if (c.deleted) continue; // Lazily drop clauses removed from the database
+
+                int[] lits = c.lits;
+                // Make sure the false literal is at position 1
+                if (lits[0] == falseLit) {
+                    lits[0] = lits[1];
+                    lits[1] = falseLit;
+                }
+
+                // Clause already satisfied by the other watch: keep watching
+                if (litValue(lits[0]) > 0) {
+                    list.set(j++, c);
+                    continue;
+                }
+
+                // Look for a new literal to watch
+                boolean moved = false;
+                for (int k = 2; k < lits.length; k++) {
+                    if (litValue(lits[k]) >= 0) {
+                        lits[1] = lits[k];
+                        lits[k] = falseLit;
+                        watches[lits[1]].add(c);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) continue;
+
+                // No replacement: the clause is unit or conflicting
+                list.set(j++, c);
+                if (litValue(lits[0]) < 0) {
+                    conflict = c;
+                    propagateHead = trailSize;
+                    while (i < n) list.set(j++, list.get(i++)); // Keep the remaining watchers
+                } else {
+                    assign(lits[0], c);
+                }
+            }
+            list.subList(j, n).clear();
+            if (conflict != null) break;
+        }
+        return conflict;
+    }
+
+    /**
+     * First-UIP conflict analysis. Fills {@code learnt} with the learnt clause (asserting literal first)
+     * and returns the level to backtrack to.
+     */
+    private int analyze(Clause conflict, List<Integer> learnt) {
+        learnt.add(-1); // Placeholder for the asserting literal
+        int pathCount = 0;
+        int p = -1;
+        int index = trailSize - 1;
+        Clause reason = conflict;
+
+        do {
+            if (reason.learnt) bumpClause(reason);
+            int[] lits = reason.lits;
+            for (int k = (p == -1 ? 0 : 1); k < lits.length; k++) {
+                int q = lits[k];
+                int v = q >> 1;
+                if (!seen[v] && levels[v] > 0) {
+                    bumpVar(v);
+                    seen[v] = true;
+                    if (levels[v] >= decisionLevel()) pathCount++;
+                    else learnt.add(q);
+                }
+            }
+            // Walk back along the trail to the next marked literal
+            while (!seen[trail[index] >> 1]) index--;
+            p = trail[index--];
+            reason = reasons[p >> 1];
+            seen[p >> 1] = false;
+            pathCount--;
+        } while (pathCount > 0);
+        learnt.set(0, p ^ 1);
+
+        // Local minimization: drop literals implied by other literals of the clause
+        int[] marked = new int[learnt.size() - 1];
+        for (int i = 1; i < learnt.size(); i++) marked[i - 1] = learnt.get(i);
+        int keep = 1;
+        for (int i = 1; i < learnt.size(); i++) {
+            int q = learnt.get(i);
+            Clause r = reasons[q >> 1];
+            boolean redundant = r != null;
+            if (redundant) {
+                for (int k = 1; k < r.lits.length; k++) {
+                    int v = r.lits[k] >> 1;
+                    if (!seen[v] && levels[v] > 0) {
+                        redundant = false;
+                        break;
+                    }
+                }
+            }
+            if (!redundant) learnt.set(keep++, q);
+        }
+        for (int q : marked) seen[q >> 1] = false;
+        learnt.subList(keep, learnt.size()).clear();
+
+        // Backtrack level is the highest level among the remaining literals; move it to position 1
+        if (learnt.size() == 1) return 0;
+        int maxIndex = 1;
+        for (int i = 2; i < learnt.size(); i++) {
+            if (levels[learnt.get(i) >> 1] > levels[learnt.get(maxIndex) >> 1]) maxIndex = i;
+        }
+        int tmp = learnt.get(1);
+        learnt.set(1, learnt.get(maxIndex));
+        learnt.set(maxIndex, tmp);
+        return levels[learnt.get(1) >> 1];
+    }
+
+    // Undo all assignments above the given decision level
+    private void backtrack(int level) {
+        if (decisionLevel() <= level) return;
+        int limit = trailLimits.get(level);
+        for (int i = trailSize - 1; i >= limit; i--) {
+            int lit = trail[i];
+            int v = lit >> 1;
+            values[v] = 0;
+            reasons[v] = null;
+            polarity[v] = (lit & 1) == 1; // Phase saving
+            if (heapIndex[v] < 0) heapInsert(v);
+        }
+        trailSize = limit;
+        propagateHead = limit;
+        trailLimits.subList(level, trailLimits.size()).clear();
+    }
+
+    // Remove roughly half of the learnt clauses, keeping short and active ones
+    private void reduceLearnts() {
+        if (learnts.size() < clauses.size() / 3 + 1000) return;
+        learnts.sort(Comparator.comparingDouble(c -> c.activity));
+        int target = learnts.size() / 2;
+        int removed = 0;
+        List<Clause> kept = new ArrayList<>(learnts.size());
+        for (Clause c : learnts) {
+            // Level 0 after restart, so no learnt clause is a reason for a non-root assignment
+            boolean locked = reasons[c.lits[0] >> 1] == c && litValue(c.lits[0]) > 0;
+            if (removed < target && c.lits.length > 2 && !locked) {
+                c.deleted = true;
+                removed++;
+            } else {
+                kept.add(c);
+            }
+        }
+        learnts.clear();
+        learnts.addAll(kept);
+    }
+
+    private void attach(Clause clause) {
+        watches[clause.lits[0]].add(clause);
+        watches[clause.lits[1]].add(clause);
+    }
+
+    private void assign(int lit, Clause reason) {
+        int v = lit >> 1;
+        values[v] = (byte) ((lit & 1) == 0 ? 1 : -1);
+        levels[v] = decisionLevel();
+        reasons[v] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    // Value of an internal literal: 1 true, -1 false, 0 unassigned
+    private int litValue(int lit) {
+        int value = values[lit >> 1];
+        return (lit & 1) == 0 ? value : -value;
+    }
+
+    private int decisionLevel() {
+        return trailLimits.size();
+    }
+
+    private int pickBranchVar() {
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (values[v] == 0) return v;
+        }
+        return -1;
+    }
+
+    private void bumpVar(int v) {
+        activity[v] += varIncrement;
+        if (activity[v] > 1e100) {
+            // Rescale all activities to avoid overflow
+            for (int i = 0; i < numVars; i++) activity[i] *= 1e-100;
+            varIncrement *= 1e-100;
+        }
+        if (heapIndex[v] >= 0) heapSiftUp(heapIndex[v]);
+    }
+
+    private void bumpClause(Clause clause) {
+        clause.activity += clauseIncrement;
+        if (clause.activity > 1e20) {
+            for (Clause c : learnts) c.activity *= 1e-20;
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    // Luby sequence: 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, ...
+    private static int luby(int i) {
+        int size = 1, seq = 0;
+        while (size < i + 1) {
+            seq++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            seq--;
+            i = i % size;
+        }
+        return 1 << seq;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+        levels = Arrays.copyOf(levels, capacity);
+        reasons = Arrays.copyOf(reasons, capacity);
+        polarity = Arrays.copyOf(polarity, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        activity = Arrays.copyOf(activity, capacity);
+        trail = Arrays.copyOf(trail, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        heapIndex = Arrays.copyOf(heapIndex, capacity);
+
+        int oldLits = watches.length;
+        watches = Arrays.copyOf(watches, 2 * capacity);
+        for (int i = oldLits; i < watches.length; i++) watches[i] = new ArrayList<>();
+    }
+
+    // --- Binary max-heap over variable activity ---
+
+    private void heapInsert(int v) {
+        heap[heapSize] = v;
+        heapIndex[v] = heapSize;
+        heapSiftUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            heapSiftDown(0);
+        }
+        return top;
+    }
+
+    private void heapSiftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activity[heap[parent]] >= activity[v]) break;
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void heapSiftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]]) child++;
+            if (activity[heap[child]] <= activity[v]) break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
@@ -9,6 +9,8 @@ public class DLsSolver {
 
     // Method to solve a Sudoku puzzle using Depth-Limited Search
     public List<int[][]> solveWithDLS(int[][] puzzle, int depthLimit) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
         List<int[][]> solutions = new ArrayList<>(); // Store all valid solutions
         int iterations = 0; // Track the number of iterations
 
@@ -27,6 +29,13 @@ public class DLsSolver {
         }
 
         System.out.println("\nDLS completed with " + iterations + " iterations.");
+        if (event.shouldCommit()) {
+            event.engine = "DLS";
+            event.clues = Utils.countClues(puzzle);
+            event.nodes = iterations;
+            event.solutions = solutions.size();
+            event.commit();
+        }
         return solutions;
     }
 
@@ -0,0 +1,429 @@
+package sudoku;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * DifficultyGrader.java
+ *
+ * Rates a puzzle by solving it the way a person would: at every step it applies the simplest
+ * human technique that makes progress (singles first, then pairs, pointing, box/line reduction,
+ * hidden pairs and X-Wing). Each step adds the technique's weight to the score, and the hardest
+ * technique needed is reported alongside it. A puzzle that none of the techniques can finish needs
+ * guessing, which is rated as the hardest level.
+ *
+ * Clue count alone predicts difficulty poorly: a 30-clue puzzle that needs an X-Wing is much harder
+ * than a 25-clue puzzle that only needs singles. Grading can stop early once the score passes a
+ * limit, which lets the generator throw away candidates that are clearly too hard.
+ */
+public class DifficultyGrader {
+    private static final Map<Integer, Layout> LAYOUTS = new ConcurrentHashMap<>(); // Unit and peer tables per grid size
+
+    /**
+     * Human solving techniques, in the order they are tried, with the score each step adds.
+     */
+    public enum Technique {
+        HIDDEN_SINGLE(1),
+        NAKED_SINGLE(2),
+        NAKED_PAIR(10),
+        POINTING(15),
+        BOX_LINE(15),
+        HIDDEN_PAIR(20),
+        X_WING(40),
+        GUESS(200);
+
+        private final int weight;
+
+        Technique(int weight) {
+            this.weight = weight;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    /**
+     * The result of grading one puzzle.
+     */
+    public static final class Grade {
+        private final int score;
+        private final Technique hardest;
+        private final boolean solvedByLogic;
+        private final boolean stoppedEarly;
+
+        Grade(int score, Technique hardest, boolean solvedByLogic, boolean stoppedEarly) {
+            this.score = score;
+            this.hardest = hardest;
+            this.solvedByLogic = solvedByLogic;
+            this.stoppedEarly = stoppedEarly;
+        }
+
+        // Total score; higher is harder
+        public int getScore() {
+            return score;
+        }
+
+        // Hardest technique the puzzle needed (null if it had no empty cells)
+        public Technique getHardest() {
+            return hardest;
+        }
+
+        // True if the techniques alone completed the grid
+        public boolean isSolvedByLogic() {
+            return solvedByLogic;
+        }
+
+        // True if grading stopped because the score passed the limit
+        public boolean isStoppedEarly() {
+            return stoppedEarly;
+        }
+
+        @Override
+        public String toString() {
+            return "score " + score + ", hardest " + hardest + (stoppedEarly ? " (stopped early)" : "");
+        }
+    }
+
+    /**
+     * Grades a puzzle completely.
+     *
+     * @param puzzle the puzzle, with 0 for empty cells (not modified)
+     * @return the grade
+     */
+    public Grade grade(int[][] puzzle) {
+        return grade(puzzle, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Grades a puzzle, stopping as soon as the score goes above maxScore.
+     *
+     * @param puzzle   the puzzle, with 0 for empty cells (not modified)
+     * @param maxScore the score beyond which the exact grade no longer matters
+     * @return the grade; isStoppedEarly() is true if the limit was passed
+     */
+    public Grade grade(int[][] puzzle, int maxScore) {
+        return new State(LAYOUTS.computeIfAbsent(puzzle.length, Layout::new), puzzle).solve(maxScore);
+    }
+
+    /**
+     * Grades many puzzles in parallel on all available cores.
+     *
+     * @param puzzles  the puzzles to grade
+     * @param maxScore the score beyond which grading of a puzzle stops
+     * @return one grade per puzzle, in the same order
+     */
+    public List<Grade> gradeAll(List<int[][]> puzzles, int maxScore) {
+        Grade[] grades = new Grade[puzzles.size()];
+        IntStream.range(0, puzzles.size()).parallel()
+                .forEach(i -> grades[i] = grade(puzzles.get(i), maxScore));
+        return Arrays.asList(grades);
+    }
+
+    /**
+     * Unit and peer tables for one grid size. They never change, so they are built once per size
+     * and shared by every grade of that size, including concurrent ones.
+     */
+    private static final class Layout {
+        private final int gridSize;
+        private final int boxSize;
+        private final int[][] units;    // Rows, then columns, then boxes
+        private final int[][] peers;    // Cells sharing a unit with each cell
+
+        Layout(int gridSize) {
+            this.gridSize = gridSize;
+            this.boxSize = (int) Math.round(Math.sqrt(gridSize));
+            if (gridSize <= 0 || boxSize * boxSize != gridSize || gridSize > 25) {
+                throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+            }
+            int total = gridSize * gridSize;
+            units = new int[3 * gridSize][gridSize];
+            for (int u = 0; u < gridSize; u++) {
+                for (int i = 0; i < gridSize; i++) {
+                    units[u][i] = u * gridSize + i;
+                    units[gridSize + u][i] = i * gridSize + u;
+                    units[2 * gridSize + u][i] = ((u / boxSize) * boxSize + i / boxSize) * gridSize
+                            + (u % boxSize) * boxSize + i % boxSize;
+                }
+            }
+
+            // Peers of a cell: the other cells of its row, column and box, each listed once
+            peers = new int[total][];
+            for (int cell = 0; cell < total; cell++) {
+                int row = cell / gridSize, col = cell % gridSize;
+                int box = (row / boxSize) * boxSize + col / boxSize;
+                int[] list = new int[3 * (gridSize - 1) - 2 * (boxSize - 1)];
+                int count = 0;
+                for (int[] unit : new int[][] {units[row], units[gridSize + col], units[2 * gridSize + box]}) {
+                    for (int other : unit) {
+                        if (other == cell) continue;
+                        boolean listed = false;
+                        for (int k = 0; k < count && !listed; k++) listed = list[k] == other;
+                        if (!listed) list[count++] = other;
+                    }
+                }
+                peers[cell] = list;
+            }
+        }
+    }
+
+    /**
+     * Candidate grid that the techniques work on.
+     */
+    private static final class State {
+        private final int gridSize;
+        private final int boxSize;
+        private final int[][] units;    // Shared from the layout
+        private final int[][] peers;    // Shared from the layout
+        private final int[] values;     // Placed digits, flattened (0 = empty)
+        private final int[] candidates; // Candidate bitmask of each empty cell (bit d = digit d)
+        private int open;               // Number of empty cells
+        private boolean contradiction;  // Some cell or unit ran out of options
+
+        State(Layout layout, int[][] puzzle) {
+            gridSize = layout.gridSize;
+            boxSize = layout.boxSize;
+            units = layout.units;
+            peers = layout.peers;
+            int total = gridSize * gridSize;
+            values = new int[total];
+            candidates = new int[total];
+            Arrays.fill(candidates, ((1 << gridSize) - 1) << 1);
+            open = total;
+            for (int cell = 0; cell < total; cell++) {
+                int value = puzzle[cell / gridSize][cell % gridSize];
+                if (value < 0 || value > gridSize) throw new IllegalArgumentException("Invalid value " + value);
+                if (value != 0) place(cell, value);
+            }
+        }
+
+        // Apply the simplest productive technique repeatedly until solved, stuck, or over the limit
+        Grade solve(int maxScore) {
+            int score = 0;
+            Technique hardest = null;
+            while (open > 0 && !contradiction) {
+                Technique used = step();
+                if (used == null) used = Technique.GUESS; // No technique applies: a person would have to guess
+                score += used.getWeight();
+                if (hardest == null || used.ordinal() > hardest.ordinal()) hardest = used;
+                if (used == Technique.GUESS) break;
+                if (score > maxScore) return new Grade(score, hardest, false, true);
+            }
+            return new Grade(score, hardest, open == 0 && !contradiction, false);
+        }
+
+        // Try each technique in order; return the first one that made progress
+        private Technique step() {
+            if (hiddenSingle()) return Technique.HIDDEN_SINGLE;
+            if (nakedSingle()) return Technique.NAKED_SINGLE;
+            if (nakedPair()) return Technique.NAKED_PAIR;
+            if (pointing()) return Technique.POINTING;
+            if (boxLine()) return Technique.BOX_LINE;
+            if (hiddenPair()) return Technique.HIDDEN_PAIR;
+            if (xWing()) return Technique.X_WING;
+            return null;
+        }
+
+        // A digit that fits in only one cell of a unit
+        private boolean hiddenSingle() {
+            for (int[] unit : units) {
+                for (int d = 1; d <= gridSize; d++) {
+                    int only = -1, count = 0;
+                    boolean placed = false;
+                    for (int cell : unit) {
+                        if (values[cell] == d) placed = true;
+                        else if (values[cell] == 0 && (candidates[cell] & (1 << d)) != 0) {
+                            only = cell;
+                            count++;
+                        }
+                    }
+                    if (placed) continue;
+                    if (count == 0) {
+                        contradiction = true;
+                        return false;
+                    }
+                    if (count == 1) {
+                        place(only, d);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // A cell with only one candidate left
+        private boolean nakedSingle() {
+            for (int cell = 0; cell < values.length; cell++) {
+                if (values[cell] == 0 && Integer.bitCount(candidates[cell]) == 1) {
+                    place(cell, Integer.numberOfTrailingZeros(candidates[cell]));
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Two cells of a unit with the same two candidates: no other cell of the unit can hold them
+        private boolean nakedPair() {
+            for (int[] unit : units) {
+                for (int i = 0; i < gridSize; i++) {
+                    int a = unit[i];
+                    if (values[a] != 0 || Integer.bitCount(candidates[a]) != 2) continue;
+                    for (int j = i + 1; j < gridSize; j++) {
+                        int b = unit[j];
+                        if (values[b] != 0 || candidates[b] != candidates[a]) continue;
+                        boolean changed = false;
+                        for (int cell : unit) {
+                            if (cell != a && cell != b) changed |= eliminate(cell, candidates[a]);
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // A digit confined to one row or column inside a box can be removed from the rest of that line
+        private boolean pointing() {
+            for (int b = 0; b < gridSize; b++) {
+                int[] box = units[2 * gridSize + b];
+                for (int d = 1; d <= gridSize; d++) {
+                    int row = -1, col = -1;
+                    boolean sameRow = true, sameCol = true, any = false;
+                    for (int cell : box) {
+                        if (values[cell] != 0 || (candidates[cell] & (1 << d)) == 0) continue;
+                        int r = cell / gridSize, c = cell % gridSize;
+                        if (!any) {
+                            row = r;
+                            col = c;
+                            any = true;
+                        }
+                        sameRow &= r == row;
+                        sameCol &= c == col;
+                    }
+                    if (!any) continue;
+                    boolean changed = false;
+                    if (sameRow) changed |= eliminateOutside(units[row], box, 1 << d);
+                    if (sameCol) changed |= eliminateOutside(units[gridSize + col], box, 1 << d);
+                    if (changed) return true;
+                }
+            }
+            return false;
+        }
+
+        // A digit confined to one box inside a row or column can be removed from the rest of that box
+        private boolean boxLine() {
+            for (int u = 0; u < 2 * gridSize; u++) {
+                int[] line = units[u];
+                for (int d = 1; d <= gridSize; d++) {
+                    int box = -1;
+                    boolean sameBox = true, any = false;
+                    for (int cell : line) {
+                        if (values[cell] != 0 || (candidates[cell] & (1 << d)) == 0) continue;
+                        int b = (cell / gridSize / boxSize) * boxSize + (cell % gridSize) / boxSize;
+                        if (!any) {
+                            box = b;
+                            any = true;
+                        }
+                        sameBox &= b == box;
+                    }
+                    if (any && sameBox && eliminateOutside(units[2 * gridSize + box], line, 1 << d)) return true;
+                }
+            }
+            return false;
+        }
+
+        // Two digits that fit only in the same two cells of a unit: those cells hold nothing else
+        private boolean hiddenPair() {
+            for (int[] unit : units) {
+                int[] where = new int[gridSize + 1]; // Bitmask of unit positions allowing each digit
+                for (int i = 0; i < gridSize; i++) {
+                    int cell = unit[i];
+                    if (values[cell] != 0) continue;
+                    for (int d = 1; d <= gridSize; d++) {
+                        if ((candidates[cell] & (1 << d)) != 0) where[d] |= 1 << i;
+                    }
+                }
+                for (int d1 = 1; d1 <= gridSize; d1++) {
+                    if (Integer.bitCount(where[d1]) != 2) continue;
+                    for (int d2 = d1 + 1; d2 <= gridSize; d2++) {
+                        if (where[d2] != where[d1]) continue;
+                        int pair = (1 << d1) | (1 << d2);
+                        boolean changed = false;
+                        for (int positions = where[d1]; positions != 0; positions &= positions - 1) {
+                            int cell = unit[Integer.numberOfTrailingZeros(positions)];
+                            changed |= eliminate(cell, candidates[cell] & ~pair);
+                        }
+                        if (changed) return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // A digit limited to the same two columns in two rows (or rows in two columns) is removed
+        // from the rest of those columns (or rows)
+        private boolean xWing() {
+            for (int d = 1; d <= gridSize; d++) {
+                for (int orientation = 0; orientation < 2; orientation++) {
+                    int base = orientation * gridSize; // 0: rows as base lines, gridSize: columns
+                    int[] positions = new int[gridSize];
+                    for (int line = 0; line < gridSize; line++) {
+                        int[] unit = units[base + line];
+                        for (int i = 0; i < gridSize; i++) {
+                            if (values[unit[i]] == 0 && (candidates[unit[i]] & (1 << d)) != 0) positions[line] |= 1 << i;
+                        }
+                    }
+                    for (int l1 = 0; l1 < gridSize; l1++) {
+                        if (Integer.bitCount(positions[l1]) != 2) continue;
+                        for (int l2 = l1 + 1; l2 < gridSize; l2++) {
+                            if (positions[l2] != positions[l1]) continue;
+                            boolean changed = false;
+                            int crossBase = gridSize - base; // The perpendicular units
+                            for (int p = positions[l1]; p != 0; p &= p - 1) {
+                                int[] cross = units[crossBase + Integer.numberOfTrailingZeros(p)];
+                                for (int i = 0; i < gridSize; i++) {
+                                    if (i != l1 && i != l2) changed |= eliminate(cross[i], 1 << d);
+                                }
+                            }
+                            if (changed) return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void place(int cell, int digit) {
+            if (values[cell] != 0) return;
+            if ((candidates[cell] & (1 << digit)) == 0) contradiction = true; // Clashes with a peer
+            values[cell] = digit;
+            candidates[cell] = 1 << digit;
+            open--;
+            for (int peer : peers[cell]) {
+                if (values[peer] == 0) eliminate(peer, 1 << digit);
+            }
+        }
+
+        // Remove digits from an empty cell's candidates; returns true if anything was removed
+        private boolean eliminate(int cell, int digits) {
+            if (values[cell] != 0 || (candidates[cell] & digits) == 0) return false;
+            candidates[cell] &= ~digits;
+            if (candidates[cell] == 0) contradiction = true;
+            return true;
+        }
+
+        // Remove digits from every cell of 'unit' that is not in 'keep'
+        private boolean eliminateOutside(int[] unit, int[] keep, int digits) {
+            boolean changed = false;
+            outer:
+            for (int cell : unit) {
+                for (int k : keep) {
+                    if (k == cell) continue outer;
+                }
+                changed |= eliminate(cell, digits);
+            }
+            return changed;
+        }
+    }
+}
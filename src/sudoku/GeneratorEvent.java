@@ -0,0 +1,46 @@
+package sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event for one call to {@link SudokuGenerator#generatePuzzle(int)} (mode "Clues")
+ * or {@link SudokuGenerator#generateRatedPuzzle(int, int)} (mode "Rated"). The two paths count
+ * different things, so the field descriptions say what each one means on each path.
+ */
+@Name("sudoku.Generate")
+@Label("Sudoku Generate")
+@Category({"Sudoku", "Generator"})
+@Description("Generation of one Sudoku puzzle, including retries")
+public class GeneratorEvent extends Event {
+    @Label("Mode")
+    @Description("Clues: fixed clue count requested; Rated: difficulty band requested")
+    public String mode;
+
+    @Label("Clues")
+    @Description("Clues: requested number of clues; Rated: clues in the generated puzzle (0 if none was found)")
+    public int clues;
+
+    @Label("Attempts")
+    @Description("Clues: random grids generated before one was solvable; Rated: candidates graded")
+    public int attempts;
+
+    @Label("Placement Retries")
+    @Description("Clues: random clue placements rejected because the cell was taken or the digit clashed; Rated: always 0")
+    public long placementRetries;
+
+    @Label("Min Score")
+    @Description("Rated: lowest accepted difficulty score; Clues: 0")
+    public int minScore;
+
+    @Label("Max Score")
+    @Description("Rated: highest accepted difficulty score; Clues: 0")
+    public int maxScore;
+
+    @Label("Score")
+    @Description("Rated: difficulty score of the generated puzzle (0 if none was found); Clues: 0")
+    public int score;
+}
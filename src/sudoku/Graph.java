@@ -57,6 +57,17 @@ public class Graph {
         }
     }
 
+    // Adds the edges of the "diagonal Sudoku" variant: cells on each main diagonal must also be distinct
+    public void addDiagonalEdges(int gridSize) {
+        for (int i = 0; i < gridSize; i++) {
+            for (int j = 0; j < gridSize; j++) {
+                if (i == j) continue;
+                addEdge(i * gridSize + i, j * gridSize + j); // Main diagonal
+                addEdge(i * gridSize + (gridSize - 1 - i), j * gridSize + (gridSize - 1 - j)); // Anti-diagonal
+            }
+        }
+    }
+
     // Validates the graph's structure by checking that all nodes are connected correctly
     public boolean validateGraph(int gridSize) {
         int totalCells = gridSize * gridSize; // Total number of cells in the grid
@@ -37,6 +37,8 @@ import java.util.*;
       * @return A list of solutions we found.
       */
      public List<int[][]> solveWithHybrid(int[][] puzzle) {
+         SolveEvent event = new SolveEvent();
+         event.begin();
          Queue<int[][]> queue = new LinkedList<>(); // BFS queue for managing states
          List<int[][]> solutions = new ArrayList<>(); // Store any valid solutions
          queue.add(copyGrid(puzzle)); // Add the starting puzzle to the queue
@@ -52,6 +54,8 @@ import java.util.*;
          while (!queue.isEmpty()) {
              int size = queue.size(); // How many nodes we’re dealing with at this level
              System.out.printf("BFS Level: %-3d | Depth Limit: %-3d | Nodes to process: %-3d%n", bfsLevel, depthLimit, size);
+             BfsLevelEvent levelEvent = new BfsLevelEvent();
+             levelEvent.begin();
  
              for (int i = 0; i < size; i++) {
                  iterations++;
@@ -87,6 +91,16 @@ import java.util.*;
                  }
              }
  
+             // Record the completed level for Flight Recorder
+             if (levelEvent.shouldCommit()) {
+                 levelEvent.engine = "Hybrid";
+                 levelEvent.level = bfsLevel;
+                 levelEvent.nodesProcessed = size;
+                 levelEvent.queueSize = queue.size();
+                 levelEvent.depthLimit = depthLimit;
+                 levelEvent.commit();
+             }
+
              // Increase the depth limit and BFS level to keep exploring further
              bfsLevel++;
              depthLimit += 2; // Let DLS go deeper as BFS progresses
@@ -99,6 +113,13 @@ import java.util.*;
              System.out.println("\nNo solution found with Hybrid BFS-DLS.");
          }
          System.out.println("Hybrid BFS-DLS completed in " + iterations + " iterations.\n");
+         if (event.shouldCommit()) {
+             event.engine = "Hybrid";
+             event.clues = Utils.countClues(puzzle);
+             event.nodes = iterations;
+             event.solutions = solutions.size();
+             event.commit();
+         }
          return solutions;
      }
  
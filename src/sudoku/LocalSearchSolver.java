@@ -0,0 +1,447 @@
+package sudoku;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LocalSearchSolver.java
+ *
+ * Stochastic local-search solver for large grids (16x16 and 25x25), based on
+ * simulated annealing over box-permutation states, as described in:
+ *
+ * Rhyd Lewis. "Metaheuristics can solve Sudoku puzzles", Journal of Heuristics 13 (2007).
+ *
+ * How it works:
+ * - Forced cells (naked and hidden singles) are filled first and stay fixed.
+ * - Every box is filled with its missing digits, so box constraints always hold.
+ * - The cost is the number of duplicate digits across all rows and columns.
+ * - A move swaps two non-clue cells of the same box, provided each cell's fixed row, column and
+ *   box neighbours still allow the digit it receives. Row and column digit counters make
+ *   the cost change of a move computable in O(1) and are updated incrementally.
+ * - Several independent restarts run in parallel on all cores; the first zero-cost grid wins.
+ *
+ * Local search cannot prove that a puzzle has no solution, so the search is bounded by a time limit.
+ * Digit sets are int bitmasks, so grids larger than 30x30 (in practice, larger than 25x25) are rejected.
+ * It works best on sparsely-clued grids; around 40-50% clues it struggles, and {@link SatSolver} is the better choice.
+ */
+public class LocalSearchSolver {
+    private static final double COOLING_RATE = 0.99; // Temperature multiplier after each Markov chain
+    private static final int STALE_CHAINS = 40;      // Chains without improvement before restarting
+
+    /**
+     * Searches for one solution using parallel simulated annealing.
+     *
+     * @param puzzle          the puzzle to solve, with 0 for empty cells
+     * @param timeLimitMillis the maximum time to search before giving up
+     * @return a list containing the solution, or an empty list if none was found in time
+     * @throws IllegalArgumentException if the grid size is not a perfect square up to 30
+     * @throws IllegalStateException    if a search worker fails
+     */
+    public List<int[][]> solveWithLocalSearch(int[][] puzzle, long timeLimitMillis) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        List<int[][]> solutions = new ArrayList<>();
+        int gridSize = puzzle.length;
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (boxSize * boxSize != gridSize || gridSize > 30) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+
+        // Fix forced cells first; this also detects puzzles whose clues contradict each other
+        int[] fixed = propagateSingles(puzzle, gridSize, boxSize);
+        if (fixed == null) {
+            System.out.println("No solution found with Local Search (clues are contradictory).");
+            if (event.shouldCommit()) {
+                event.engine = "LocalSearch";
+                event.clues = Utils.countClues(puzzle);
+                event.solutions = 0;
+                event.commit();
+            }
+            return solutions;
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeLimitMillis);
+        AtomicReference<int[]> result = new AtomicReference<>();
+        AtomicLong totalMoves = new AtomicLong();
+        AtomicLong totalRestarts = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int w = 0; w < workers; w++) {
+                long seed = System.nanoTime() ^ (0x9E3779B97F4A7C15L * (w + 1));
+                futures.add(executor.submit(() -> {
+                    Annealer annealer = new Annealer(fixed, gridSize, boxSize, new SplittableRandom(seed));
+                    // Keep restarting until a solution is found anywhere or time runs out
+                    while (result.get() == null && System.nanoTime() < deadline) {
+                        totalRestarts.incrementAndGet();
+                        int[] solved = annealer.run(result, deadline);
+                        if (solved != null) result.compareAndSet(null, solved);
+                    }
+                    totalMoves.addAndGet(annealer.moves);
+                }));
+            }
+            executor.shutdown();
+            executor.awaitTermination(timeLimitMillis + 1000, TimeUnit.MILLISECONDS);
+            // A worker that threw must be reported, not mistaken for running out of time
+            for (Future<?> future : futures) {
+                if (future.isDone()) future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Local search worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Reporting the results
+        int[] cells = result.get();
+        if (cells != null) {
+            int[][] grid = new int[gridSize][gridSize];
+            for (int row = 0; row < gridSize; row++) {
+                System.arraycopy(cells, row * gridSize, grid[row], 0, gridSize);
+            }
+            solutions.add(grid);
+            System.out.println("Local Search found a solution.");
+        } else {
+            System.out.println("No solution found with Local Search within " + timeLimitMillis + " ms.");
+        }
+        System.out.println("Local Search completed with " + totalMoves.get() + " moves over "
+                + totalRestarts.get() + " restarts on " + workers + " threads.");
+        if (event.shouldCommit()) {
+            event.engine = "LocalSearch";
+            event.clues = Utils.countClues(puzzle);
+            event.nodes = totalMoves.get();
+            event.solutions = solutions.size();
+            event.commit();
+        }
+        return solutions;
+    }
+
+    /**
+     * Repeatedly fills forced cells: cells with a single candidate (naked singles) and
+     * digits that fit in only one cell of a row, column or box (hidden singles).
+     *
+     * @return the flattened grid with forced cells filled, or null if the clues contradict each other
+     */
+    private int[] propagateSingles(int[][] puzzle, int gridSize, int boxSize) {
+        int[] cells = new int[gridSize * gridSize];
+        int[] rowMask = new int[gridSize], colMask = new int[gridSize], boxMask = new int[gridSize];
+
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int value = puzzle[row][col];
+                if (value == 0) continue;
+                if (value < 0 || value > gridSize) {
+                    throw new IllegalArgumentException("Invalid value " + value + " at (" + row + ", " + col + ")");
+                }
+                int bit = 1 << value, box = (row / boxSize) * boxSize + col / boxSize;
+                if (((rowMask[row] | colMask[col] | boxMask[box]) & bit) != 0) return null; // Duplicate clue
+                rowMask[row] |= bit;
+                colMask[col] |= bit;
+                boxMask[box] |= bit;
+                cells[row * gridSize + col] = value;
+            }
+        }
+
+        int all = ((1 << gridSize) - 1) << 1; // Bits 1..gridSize
+        int[] unitCells = new int[gridSize];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            // Naked singles
+            for (int cell = 0; cell < cells.length; cell++) {
+                if (cells[cell] != 0) continue;
+                int row = cell / gridSize, col = cell % gridSize, box = (row / boxSize) * boxSize + col / boxSize;
+                int candidates = all & ~(rowMask[row] | colMask[col] | boxMask[box]);
+                if (candidates == 0) return null; // Dead cell: no digit fits
+                if (Integer.bitCount(candidates) == 1) {
+                    cells[cell] = Integer.numberOfTrailingZeros(candidates);
+                    rowMask[row] |= candidates;
+                    colMask[col] |= candidates;
+                    boxMask[box] |= candidates;
+                    changed = true;
+                }
+            }
+
+            // Hidden singles: unit 0..gridSize-1 are rows, then columns, then boxes
+            for (int unit = 0; unit < 3 * gridSize; unit++) {
+                int index = unit % gridSize;
+                for (int i = 0; i < gridSize; i++) {
+                    if (unit < gridSize) unitCells[i] = index * gridSize + i;
+                    else if (unit < 2 * gridSize) unitCells[i] = i * gridSize + index;
+                    else unitCells[i] = ((index / boxSize) * boxSize + i / boxSize) * gridSize
+                            + (index % boxSize) * boxSize + i % boxSize;
+                }
+
+                int seenOnce = 0, seenTwice = 0, placed = 0;
+                for (int cell : unitCells) {
+                    if (cells[cell] != 0) {
+                        placed |= 1 << cells[cell];
+                        continue;
+                    }
+                    int row = cell / gridSize, col = cell % gridSize, box = (row / boxSize) * boxSize + col / boxSize;
+                    int candidates = all & ~(rowMask[row] | colMask[col] | boxMask[box]);
+                    seenTwice |= seenOnce & candidates;
+                    seenOnce |= candidates;
+                }
+                if ((placed | seenOnce) != all) return null; // Some digit has no place left in this unit
+
+                int hidden = seenOnce & ~seenTwice;
+                for (int cell : unitCells) {
+                    if (hidden == 0) break;
+                    if (cells[cell] != 0) continue;
+                    int row = cell / gridSize, col = cell % gridSize, box = (row / boxSize) * boxSize + col / boxSize;
+                    int candidates = all & ~(rowMask[row] | colMask[col] | boxMask[box]) & hidden;
+                    if (candidates == 0) continue;
+                    if (Integer.bitCount(candidates) > 1) return null; // Two digits forced into one cell
+                    cells[cell] = Integer.numberOfTrailingZeros(candidates);
+                    rowMask[row] |= candidates;
+                    colMask[col] |= candidates;
+                    boxMask[box] |= candidates;
+                    hidden &= ~candidates;
+                    changed = true;
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * One simulated-annealing worker. Holds its own state so workers never share mutable data.
+     */
+    private static final class Annealer {
+        private final int[] fixed;      // Clues and forced cells (0 = free)
+        private final int gridSize;
+        private final int boxSize;
+        private final SplittableRandom random;
+
+        private final int[] cells;      // Current candidate grid, flattened
+        private final int[] candidates; // Digits allowed in each free cell by the fixed cells (bitmask)
+        private final int[] rowCount;   // rowCount[row * (gridSize + 1) + digit]
+        private final int[] colCount;   // colCount[col * (gridSize + 1) + digit]
+        private final int[][] freeCells; // Non-fixed cells of each box
+        private final int[] movableBoxes; // Boxes with at least two free cells
+        private final int chainLength;  // Moves per temperature step
+        private long moves;
+
+        Annealer(int[] fixed, int gridSize, int boxSize, SplittableRandom random) {
+            this.fixed = fixed;
+            this.gridSize = gridSize;
+            this.boxSize = boxSize;
+            this.random = random;
+            this.cells = new int[fixed.length];
+            this.rowCount = new int[gridSize * (gridSize + 1)];
+            this.colCount = new int[gridSize * (gridSize + 1)];
+            this.freeCells = new int[gridSize][];
+            this.candidates = new int[fixed.length];
+
+            // A free cell may only hold digits that no fixed cell in its row, column or box already uses
+            int[] rowMask = new int[gridSize], colMask = new int[gridSize], boxMask = new int[gridSize];
+            for (int cell = 0; cell < fixed.length; cell++) {
+                if (fixed[cell] == 0) continue;
+                int bit = 1 << fixed[cell];
+                rowMask[cell / gridSize] |= bit;
+                colMask[cell % gridSize] |= bit;
+                boxMask[boxOf(cell)] |= bit;
+            }
+            int all = ((1 << gridSize) - 1) << 1;
+            for (int cell = 0; cell < fixed.length; cell++) {
+                if (fixed[cell] != 0) continue;
+                candidates[cell] = all & ~(rowMask[cell / gridSize] | colMask[cell % gridSize] | boxMask[boxOf(cell)]);
+            }
+
+            int movable = 0, chain = 0;
+            for (int box = 0; box < gridSize; box++) {
+                int[] free = new int[gridSize];
+                int count = 0;
+                for (int i = 0; i < gridSize; i++) {
+                    int cell = boxCell(box, i);
+                    if (fixed[cell] == 0) free[count++] = cell;
+                }
+                freeCells[box] = Arrays.copyOf(free, count);
+                if (count >= 2) movable++;
+                chain += count * count;
+            }
+            this.movableBoxes = new int[movable];
+            for (int box = 0, k = 0; box < gridSize; box++) {
+                if (freeCells[box].length >= 2) movableBoxes[k++] = box;
+            }
+            this.chainLength = Math.max(1, chain);
+        }
+
+        /**
+         * Runs one annealing restart from a fresh random box-permutation state.
+         *
+         * @return the solved grid, or null if the restart gave up or another worker finished first
+         */
+        int[] run(AtomicReference<int[]> result, long deadline) {
+            int cost = randomizeState();
+            if (cost == 0) return cells.clone();
+            if (movableBoxes.length == 0) return null; // Nothing can move: puzzle is unsolvable this way
+
+            double temperature = initialTemperature();
+            int best = cost, stale = 0;
+
+            while (result.get() == null && System.nanoTime() < deadline) {
+                for (int step = 0; step < chainLength; step++) {
+                    moves++;
+                    int[] free = freeCells[movableBoxes[random.nextInt(movableBoxes.length)]];
+                    int i = random.nextInt(free.length);
+                    int j = random.nextInt(free.length - 1);
+                    if (j >= i) j++;
+                    int a = free[i], b = free[j];
+                    if (!canSwap(a, b)) continue; // Would put a digit where a fixed cell already rules it out
+
+                    int delta = swapDelta(a, b);
+                    if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                        applySwap(a, b);
+                        cost += delta;
+                        if (cost == 0) return cells.clone();
+                    }
+                }
+
+                // Cool down, and restart when the search has been stuck for a while
+                if (cost < best) {
+                    best = cost;
+                    stale = 0;
+                } else if (++stale >= STALE_CHAINS) {
+                    return null; // Give up on this restart; the caller starts a fresh one
+                }
+                temperature *= COOLING_RATE;
+            }
+            return null;
+        }
+
+        // Fill every box with its missing digits in random order, and rebuild the counters
+        private int randomizeState() {
+            Arrays.fill(rowCount, 0);
+            Arrays.fill(colCount, 0);
+            for (int box = 0; box < gridSize; box++) {
+                boolean[] used = new boolean[gridSize + 1];
+                for (int i = 0; i < gridSize; i++) used[fixed[boxCell(box, i)]] = true;
+
+                int[] free = freeCells[box].clone();
+                int missing = 0;
+                for (int d = 1; d <= gridSize; d++) if (!used[d]) missing |= 1 << d;
+                for (int k = free.length - 1; k > 0; k--) { // Fisher-Yates shuffle of the cell order
+                    int r = random.nextInt(k + 1);
+                    int tmp = free[k];
+                    free[k] = free[r];
+                    free[r] = tmp;
+                }
+                for (int i = 0; i < gridSize; i++) {
+                    int cell = boxCell(box, i);
+                    if (fixed[cell] != 0) cells[cell] = fixed[cell];
+                }
+                // Give each cell a random missing digit it allows, or any missing digit if none is left
+                for (int cell : free) {
+                    int options = missing & candidates[cell];
+                    if (options == 0) options = missing;
+                    int digit = randomBit(options);
+                    cells[cell] = digit;
+                    missing &= ~(1 << digit);
+                }
+            }
+
+            for (int cell = 0; cell < cells.length; cell++) {
+                rowCount[(cell / gridSize) * (gridSize + 1) + cells[cell]]++;
+                colCount[(cell % gridSize) * (gridSize + 1) + cells[cell]]++;
+            }
+            int cost = 0;
+            for (int i = 0; i < rowCount.length; i++) {
+                if (rowCount[i] > 1) cost += rowCount[i] - 1;
+                if (colCount[i] > 1) cost += colCount[i] - 1;
+            }
+            return cost;
+        }
+
+        // Standard deviation of the cost change over a sample of random moves (Lewis 2007)
+        private double initialTemperature() {
+            int samples = Math.max(10, movableBoxes.length * 10);
+            double sum = 0, sumSquares = 0;
+            int count = 0;
+            for (int s = 0; s < samples; s++) {
+                int[] free = freeCells[movableBoxes[random.nextInt(movableBoxes.length)]];
+                int i = random.nextInt(free.length);
+                int j = random.nextInt(free.length - 1);
+                if (j >= i) j++;
+                if (!canSwap(free[i], free[j])) continue;
+                int delta = swapDelta(free[i], free[j]);
+                sum += delta;
+                sumSquares += (double) delta * delta;
+                count++;
+            }
+            if (count == 0) return 1.0;
+            double mean = sum / count;
+            return Math.max(0.1, Math.sqrt(Math.max(0, sumSquares / count - mean * mean)));
+        }
+
+        // Cost change of swapping cells a and b (same box, different digits) in O(1)
+        private int swapDelta(int a, int b) {
+            int va = cells[a], vb = cells[b];
+            int stride = gridSize + 1;
+            int delta = 0;
+
+            int ra = (a / gridSize) * stride, rb = (b / gridSize) * stride;
+            if (ra != rb) {
+                delta += (rowCount[ra + va] > 1 ? -1 : 0) + (rowCount[ra + vb] > 0 ? 1 : 0);
+                delta += (rowCount[rb + vb] > 1 ? -1 : 0) + (rowCount[rb + va] > 0 ? 1 : 0);
+            }
+            int ca = (a % gridSize) * stride, cb = (b % gridSize) * stride;
+            if (ca != cb) {
+                delta += (colCount[ca + va] > 1 ? -1 : 0) + (colCount[ca + vb] > 0 ? 1 : 0);
+                delta += (colCount[cb + vb] > 1 ? -1 : 0) + (colCount[cb + va] > 0 ? 1 : 0);
+            }
+            return delta;
+        }
+
+        // Swap two cells and update the row/column counters
+        private void applySwap(int a, int b) {
+            int va = cells[a], vb = cells[b];
+            int stride = gridSize + 1;
+            int ra = (a / gridSize) * stride, rb = (b / gridSize) * stride;
+            int ca = (a % gridSize) * stride, cb = (b % gridSize) * stride;
+
+            rowCount[ra + va]--;
+            rowCount[ra + vb]++;
+            rowCount[rb + vb]--;
+            rowCount[rb + va]++;
+            colCount[ca + va]--;
+            colCount[ca + vb]++;
+            colCount[cb + vb]--;
+            colCount[cb + va]++;
+
+            cells[a] = vb;
+            cells[b] = va;
+        }
+
+        // True if both cells allow the other's digit
+        private boolean canSwap(int a, int b) {
+            return (candidates[a] & (1 << cells[b])) != 0 && (candidates[b] & (1 << cells[a])) != 0;
+        }
+
+        // Picks a uniformly random set bit of the mask and returns its index
+        private int randomBit(int mask) {
+            int skip = random.nextInt(Integer.bitCount(mask));
+            for (int k = 0; k < skip; k++) mask &= mask - 1;
+            return Integer.numberOfTrailingZeros(mask);
+        }
+
+        private int boxOf(int cell) {
+            return (cell / gridSize / boxSize) * boxSize + (cell % gridSize) / boxSize;
+        }
+
+        // Index of the i-th cell (row-major) inside the given box
+        private int boxCell(int box, int i) {
+            int row = (box / boxSize) * boxSize + i / boxSize;
+            int col = (box % boxSize) * boxSize + i % boxSize;
+            return row * gridSize + col;
+        }
+    }
+}
@@ -34,6 +34,7 @@
  import sudoku.HybridSolver;
  import sudoku.Utils;
  
+ import java.util.Arrays;
  import java.util.List;
  import java.util.Scanner;
  
@@ -80,45 +81,50 @@
          SudokuGenerator generator = new SudokuGenerator();
          int[][] puzzle;
  
-         // Generate puzzle based on difficulty level
+         // Generate puzzle based on difficulty level, rated by the techniques it needs rather than its clue count
          switch (difficulty) {
-             case 1 -> puzzle = generator.generatePuzzle(35); // Easy: 35 clues
-             case 2 -> puzzle = generator.generatePuzzle(25); // Medium: 25 clues
-             case 3 -> puzzle = generator.generatePuzzle(17); // Hard: 17 clues
+             case 1 -> puzzle = generator.generateRatedPuzzle(0, 60); // Easy: singles only
+             case 2 -> puzzle = generator.generateRatedPuzzle(61, 150); // Medium: a few pairs or pointing steps
+             case 3 -> puzzle = generator.generateRatedPuzzle(151, 1000); // Hard: X-Wings, many eliminations or guessing
              default -> {
                  System.out.println("Invalid choice. Defaulting to Medium difficulty."); 
-                 puzzle = generator.generatePuzzle(25); // Default to medium difficulty
+                 puzzle = generator.generateRatedPuzzle(61, 150); // Default to medium difficulty
              }
          }
  
          // Print the generated puzzle
          System.out.println("\nGenerated Puzzle:");
          Utils.printSudoku(puzzle); // Display the puzzle
+         System.out.println("Difficulty: " + generator.grade(puzzle));
  
-         // Solve the puzzle using all three solvers
+         // Solve the puzzle using all solvers
          System.out.println("\n--- Solving Generated Puzzle ---");
          solvePuzzle(puzzle);
      }
  
-     // Solves a puzzle using all three solvers and compares results
+     // Solves a puzzle using all four solvers and compares results
      private static void solvePuzzle(int[][] puzzle) {
          System.out.println("\nSolving using BFS...");
-         solveAndMeasureTime("BFS", () -> new BFsSolver().solveWithBFS(puzzle));
+         solveAndMeasureTime(puzzle, "BFS", () -> new BFsSolver().solveWithBFS(puzzle));
  
          System.out.println("\nSolving using DLS...");
-         solveAndMeasureTime("DLS", () -> new DLsSolver().solveWithDLS(puzzle, 50));
+         solveAndMeasureTime(puzzle, "DLS", () -> new DLsSolver().solveWithDLS(puzzle, 50));
  
          System.out.println("\nSolving using Hybrid BFS-DLS...");
-         solveAndMeasureTime("Hybrid BFS-DLS", () -> new HybridSolver().solveWithHybrid(puzzle));
+         solveAndMeasureTime(puzzle, "Hybrid BFS-DLS", () -> new HybridSolver().solveWithHybrid(puzzle));
+
+         System.out.println("\nSolving using SAT (CDCL)...");
+         solveAndMeasureTime(puzzle, "SAT", () -> new SatSolver().solveWithSAT(puzzle, Integer.MAX_VALUE));
  
          // Why compare? This shows the strengths and weaknesses of each approach:
          // - BFS: Reliable but high memory usage
          // - DLS: Memory-efficient but can miss solutions
          // - Hybrid: Combines the best of both for a balanced, efficient solver
+         // - SAT: Learns from conflicts, so it stays fast on extreme puzzles and larger grids
      }
  
      // Utility method to measure and display the time taken by a solver
-     private static void solveAndMeasureTime(String solverName, SolverMethod solver) {
+     private static void solveAndMeasureTime(int[][] puzzle, String solverName, SolverMethod solver) {
          System.out.println("\nUsing " + solverName + "...");
          long startTime = System.nanoTime(); // Record the start time
          List<int[][]> solutions = solver.solve(); // Solve the puzzle using the chosen algorithm
@@ -133,6 +139,14 @@
              System.out.println("No solutions found."); // Handle the case where no solutions are found
          }
          System.out.println("Time taken: " + (endTime - startTime) / 1_000_000 + " ms"); // Show the time taken
+
+         // Verify the returned solutions against every Sudoku rule (outside the timed section)
+         int[] invalid = new SolutionValidator(puzzle.length).findInvalid(puzzle, solutions);
+         if (invalid.length == 0) {
+             System.out.println("All solutions verified.");
+         } else {
+             System.out.println("Invalid solutions: " + invalid.length + " " + Arrays.toString(invalid));
+         }
      }
  
      // Functional interface for solver methods
@@ -0,0 +1,99 @@
+package sudoku;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the binary puzzle/solution store shared by {@link PuzzleStoreWriter} and {@link PuzzleStoreReader}.
+ *
+ * File layout:
+ * - A 32-byte header: magic, version, grid size, record stride and record count.
+ * - Fixed-size records, one per puzzle: the packed puzzle followed by its packed solution.
+ *   Because every record has the same stride, record #i starts at HEADER_SIZE + i * stride,
+ *   so the index is implicit and random access needs no lookup table.
+ *
+ * Each cell is stored in 4 bits (two cells per byte, even cells in the low nibble), which holds
+ * the values 0-15 and therefore supports grids up to 9x9 (and 4x4). An all-zero solution means
+ * the solution was not stored.
+ */
+public final class PuzzleStore {
+    public static final int MAGIC = 0x53444B50; // "SDKP"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    // Header field offsets
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int GRID_SIZE_OFFSET = 6;
+    static final int STRIDE_OFFSET = 8;
+    static final int COUNT_OFFSET = 16;
+
+    private PuzzleStore() {
+    }
+
+    /**
+     * Number of bytes one packed grid takes.
+     *
+     * @param gridSize the size of the grid (e.g., 9)
+     * @return the packed size in bytes
+     */
+    public static int packedGridBytes(int gridSize) {
+        return (gridSize * gridSize + 1) / 2;
+    }
+
+    /**
+     * Number of bytes one record (puzzle + solution) takes.
+     *
+     * @param gridSize the size of the grid (e.g., 9)
+     * @return the record stride in bytes
+     */
+    public static int recordStride(int gridSize) {
+        return 2 * packedGridBytes(gridSize);
+    }
+
+    // Checks that the grid size fits the 4-bit cell format
+    static void checkGridSize(int gridSize) {
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (gridSize <= 0 || gridSize > 15 || boxSize * boxSize != gridSize) {
+            throw new IllegalArgumentException("Grid size " + gridSize + " does not fit 4-bit cells (supported: 4, 9)");
+        }
+    }
+
+    // Packs a grid into the buffer at its current position, two cells per byte
+    static void pack(int[][] grid, int gridSize, ByteBuffer out) {
+        if (grid == null) { // Missing solution: store zeros
+            for (int i = 0; i < packedGridBytes(gridSize); i++) out.put((byte) 0);
+            return;
+        }
+        if (grid.length != gridSize) throw new IllegalArgumentException("Expected a " + gridSize + "x" + gridSize + " grid");
+        int total = gridSize * gridSize;
+        for (int cell = 0; cell < total; cell += 2) {
+            int low = cellValue(grid, gridSize, cell);
+            int high = cell + 1 < total ? cellValue(grid, gridSize, cell + 1) : 0;
+            out.put((byte) (low | (high << 4)));
+        }
+    }
+
+    // Reads one cell from a packed grid starting at the given absolute buffer offset
+    static int unpackCell(ByteBuffer in, int gridOffset, int cell) {
+        int b = in.get(gridOffset + (cell >> 1));
+        return (cell & 1) == 0 ? b & 0x0F : (b >> 4) & 0x0F;
+    }
+
+    // Unpacks a whole grid starting at the given absolute buffer offset
+    static int[][] unpack(ByteBuffer in, int gridOffset, int gridSize) {
+        int[][] grid = new int[gridSize][gridSize];
+        int total = gridSize * gridSize;
+        for (int cell = 0; cell < total; cell += 2) {
+            int b = in.get(gridOffset + (cell >> 1));
+            grid[cell / gridSize][cell % gridSize] = b & 0x0F;
+            if (cell + 1 < total) grid[(cell + 1) / gridSize][(cell + 1) % gridSize] = (b >> 4) & 0x0F;
+        }
+        return grid;
+    }
+
+    private static int cellValue(int[][] grid, int gridSize, int cell) {
+        int value = grid[cell / gridSize][cell % gridSize];
+        if (value < 0 || value > gridSize) throw new IllegalArgumentException("Invalid cell value " + value);
+        return value;
+    }
+}
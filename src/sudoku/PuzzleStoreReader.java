@@ -0,0 +1,145 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Random access to a binary puzzle store (see {@link PuzzleStore} for the layout).
+ *
+ * The file is memory-mapped with {@link FileChannel#map}, so reading puzzle #i touches only the
+ * pages holding that record and never copies the file into the heap. A single mapping is limited
+ * to 2 GB, so large stores are mapped as several segments, each holding a whole number of records.
+ * The reader sees the records that were in the store when it was opened.
+ */
+public class PuzzleStoreReader implements Closeable {
+    private final FileChannel channel;
+    private final int gridSize;
+    private final int stride;
+    private final int gridBytes;        // Bytes per packed grid
+    private final long count;
+    private final int recordsPerSegment;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Opens and maps a store for reading.
+     *
+     * @param path the store file
+     * @throws IOException if the file cannot be read or is not a valid store
+     */
+    public PuzzleStoreReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() < PuzzleStore.HEADER_SIZE) throw new IOException("Truncated puzzle store header");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, PuzzleStore.HEADER_SIZE);
+            if (header.getInt(PuzzleStore.MAGIC_OFFSET) != PuzzleStore.MAGIC) throw new IOException("Not a puzzle store");
+            if (header.getShort(PuzzleStore.VERSION_OFFSET) != PuzzleStore.VERSION) throw new IOException("Unsupported store version");
+
+            gridSize = header.getShort(PuzzleStore.GRID_SIZE_OFFSET);
+            PuzzleStore.checkGridSize(gridSize);
+            stride = header.getInt(PuzzleStore.STRIDE_OFFSET);
+            if (stride != PuzzleStore.recordStride(gridSize)) throw new IOException("Corrupt record stride: " + stride);
+            gridBytes = PuzzleStore.packedGridBytes(gridSize);
+            count = header.getLong(PuzzleStore.COUNT_OFFSET);
+            if (PuzzleStore.HEADER_SIZE + count * stride > channel.size()) throw new IOException("Store is shorter than its record count");
+
+            // Map the records in segments of whole records, each below the 2 GB mapping limit
+            recordsPerSegment = Integer.MAX_VALUE / stride;
+            int segmentCount = (int) ((count + recordsPerSegment - 1) / recordsPerSegment);
+            segments = new MappedByteBuffer[segmentCount];
+            for (int s = 0; s < segmentCount; s++) {
+                long first = (long) s * recordsPerSegment;
+                long records = Math.min(recordsPerSegment, count - first);
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        PuzzleStore.HEADER_SIZE + first * stride, records * stride);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Decodes puzzle #index into a new grid.
+     *
+     * @param index the record number, from 0 to size() - 1
+     * @return the puzzle, with 0 for empty cells
+     */
+    public int[][] getPuzzle(long index) {
+        return PuzzleStore.unpack(segment(index), offset(index), gridSize);
+    }
+
+    /**
+     * Decodes the solution stored with puzzle #index into a new grid.
+     *
+     * @param index the record number, from 0 to size() - 1
+     * @return the solution, or null if none was stored
+     */
+    public int[][] getSolution(long index) {
+        if (!hasSolution(index)) return null;
+        return PuzzleStore.unpack(segment(index), offset(index) + gridBytes, gridSize);
+    }
+
+    /**
+     * Reads a single puzzle cell straight from the mapped file, without decoding the grid.
+     */
+    public int getPuzzleCell(long index, int row, int col) {
+        return PuzzleStore.unpackCell(segment(index), offset(index), row * gridSize + col);
+    }
+
+    /**
+     * Reads a single solution cell straight from the mapped file, without decoding the grid.
+     */
+    public int getSolutionCell(long index, int row, int col) {
+        return PuzzleStore.unpackCell(segment(index), offset(index) + gridBytes, row * gridSize + col);
+    }
+
+    /**
+     * Checks whether a solution was stored with puzzle #index (stored solutions are never all zeros).
+     */
+    public boolean hasSolution(long index) {
+        ByteBuffer buffer = segment(index);
+        int start = offset(index) + gridBytes;
+        for (int i = 0; i < gridBytes; i++) {
+            if (buffer.get(start + i) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns a read-only view of the raw record (packed puzzle followed by packed solution).
+     * The view shares memory with the mapping, so nothing is copied.
+     *
+     * @param index the record number, from 0 to size() - 1
+     * @return a buffer of {@link PuzzleStore#recordStride(int)} bytes
+     */
+    public ByteBuffer getRecordBytes(long index) {
+        return segment(index).slice(offset(index), stride).asReadOnlyBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); // Mappings stay valid until garbage collected, as documented for FileChannel.map
+    }
+
+    private ByteBuffer segment(long index) {
+        if (index < 0 || index >= count) throw new IndexOutOfBoundsException("Record " + index + " of " + count);
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int offset(long index) {
+        return (int) (index % recordsPerSegment) * stride;
+    }
+}
@@ -0,0 +1,145 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends puzzles and their solutions to a binary store (see {@link PuzzleStore} for the layout).
+ *
+ * Records are packed into an in-memory batch and written with one channel write per batch.
+ * The record count in the header is only updated after a batch is fully written, so a reader
+ * never sees a partially written record. Opening an existing store continues appending to it.
+ */
+public class PuzzleStoreWriter implements Closeable {
+    private static final int DEFAULT_BATCH_SIZE = 4096; // Records per write
+
+    private final FileChannel channel;
+    private final int gridSize;
+    private final int stride;
+    private final ByteBuffer batch;     // Pending records not yet written
+    private final ByteBuffer countField = ByteBuffer.allocate(Long.BYTES);
+    private long count;                 // Records already written to the file
+
+    /**
+     * Opens (or creates) a store for appending, using the default batch size.
+     *
+     * @param path     the store file
+     * @param gridSize the size of the grids (4 or 9); must match the file if it already exists
+     * @throws IOException if the file cannot be opened or is not a compatible store
+     */
+    public PuzzleStoreWriter(Path path, int gridSize) throws IOException {
+        this(path, gridSize, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Opens (or creates) a store for appending.
+     *
+     * @param path      the store file
+     * @param gridSize  the size of the grids (4 or 9); must match the file if it already exists
+     * @param batchSize the number of records buffered before each write
+     * @throws IOException if the file cannot be opened or is not a compatible store
+     */
+    public PuzzleStoreWriter(Path path, int gridSize, int batchSize) throws IOException {
+        PuzzleStore.checkGridSize(gridSize);
+        if (batchSize <= 0) throw new IllegalArgumentException("Batch size must be positive");
+        this.gridSize = gridSize;
+        this.stride = PuzzleStore.recordStride(gridSize);
+        this.batch = ByteBuffer.allocate(stride * batchSize);
+
+        boolean exists = Files.exists(path) && Files.size(path) > 0;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (exists) {
+                readHeader();
+            } else {
+                writeHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Adds a puzzle and its solution to the current batch, writing the batch when it is full.
+     *
+     * @param puzzle   the puzzle, with 0 for empty cells
+     * @param solution the solution, or null if it is not known
+     * @throws IOException if writing a full batch fails
+     */
+    public void append(int[][] puzzle, int[][] solution) throws IOException {
+        if (!batch.hasRemaining()) flush();
+        PuzzleStore.pack(puzzle, gridSize, batch);
+        PuzzleStore.pack(solution, gridSize, batch);
+    }
+
+    /**
+     * Writes all buffered records and updates the record count in the header.
+     *
+     * @throws IOException if the write fails
+     */
+    public void flush() throws IOException {
+        if (batch.position() == 0) return;
+        int records = batch.position() / stride;
+        batch.flip();
+        long position = PuzzleStore.HEADER_SIZE + count * stride;
+        while (batch.hasRemaining()) position += channel.write(batch, position);
+        batch.clear();
+
+        // Publish the new records only after their bytes are in the file
+        count += records;
+        countField.clear();
+        countField.putLong(count).flip();
+        channel.write(countField, PuzzleStore.COUNT_OFFSET);
+    }
+
+    /**
+     * @return the number of records in the store, including buffered ones
+     */
+    public long size() {
+        return count + batch.position() / stride;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleStore.HEADER_SIZE);
+        header.putInt(PuzzleStore.MAGIC_OFFSET, PuzzleStore.MAGIC);
+        header.putShort(PuzzleStore.VERSION_OFFSET, PuzzleStore.VERSION);
+        header.putShort(PuzzleStore.GRID_SIZE_OFFSET, (short) gridSize);
+        header.putInt(PuzzleStore.STRIDE_OFFSET, stride);
+        header.putLong(PuzzleStore.COUNT_OFFSET, 0);
+        long position = 0;
+        while (header.hasRemaining()) position += channel.write(header, position);
+        count = 0;
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleStore.HEADER_SIZE);
+        long position = 0;
+        while (header.hasRemaining()) {
+            int read = channel.read(header, position);
+            if (read < 0) throw new IOException("Truncated puzzle store header");
+            position += read;
+        }
+        if (header.getInt(PuzzleStore.MAGIC_OFFSET) != PuzzleStore.MAGIC) throw new IOException("Not a puzzle store");
+        if (header.getShort(PuzzleStore.VERSION_OFFSET) != PuzzleStore.VERSION) throw new IOException("Unsupported store version");
+        if (header.getShort(PuzzleStore.GRID_SIZE_OFFSET) != gridSize || header.getInt(PuzzleStore.STRIDE_OFFSET) != stride) {
+            throw new IOException("Store holds " + header.getShort(PuzzleStore.GRID_SIZE_OFFSET) + "x"
+                    + header.getShort(PuzzleStore.GRID_SIZE_OFFSET) + " grids, not " + gridSize + "x" + gridSize);
+        }
+        count = header.getLong(PuzzleStore.COUNT_OFFSET);
+    }
+}
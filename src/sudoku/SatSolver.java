@@ -0,0 +1,75 @@
+package sudoku;
+
+import java.util.*;
+
+/**
+ * SatSolver.java
+ *
+ * Solves Sudoku puzzles by encoding them as a SAT problem ({@link SudokuCnfEncoder})
+ * and running the in-process CDCL engine ({@link CdclSolver}) on the result.
+ *
+ * Unlike the cell-by-cell backtracking of BFS and DLS, clause learning lets the solver
+ * remember why a branch failed, which keeps extreme puzzles and large grids (16x16, 25x25)
+ * tractable. Variants with extra "must differ" constraints (e.g. diagonal Sudoku) are
+ * supported by passing a {@link Graph} with the additional edges.
+ */
+public class SatSolver {
+
+    /**
+     * Solves a standard Sudoku puzzle of any perfect-square size.
+     *
+     * @param puzzle       the puzzle to solve, with 0 for empty cells
+     * @param maxSolutions the maximum number of solutions to enumerate
+     * @return the solutions found (at most maxSolutions)
+     */
+    public List<int[][]> solveWithSAT(int[][] puzzle, int maxSolutions) {
+        Graph graph = new Graph();
+        graph.buildSudokuGraph(puzzle.length);
+        return solveWithSAT(puzzle, graph, maxSolutions);
+    }
+
+    /**
+     * Solves a Sudoku puzzle whose constraints are described by the given graph.
+     * Solutions beyond the first are found by adding a clause that blocks each previous solution.
+     *
+     * @param puzzle       the puzzle to solve, with 0 for empty cells
+     * @param graph        the constraint graph (e.g. from buildSudokuGraph, plus variant edges)
+     * @param maxSolutions the maximum number of solutions to enumerate
+     * @return the solutions found (at most maxSolutions)
+     */
+    public List<int[][]> solveWithSAT(int[][] puzzle, Graph graph, int maxSolutions) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        List<int[][]> solutions = new ArrayList<>();
+        SudokuCnfEncoder encoder = new SudokuCnfEncoder(puzzle.length);
+        CdclSolver solver = new CdclSolver();
+
+        // Encode the puzzle; a contradiction in the clues means there is nothing to search
+        if (encoder.encode(puzzle, graph, solver)) {
+            while (solutions.size() < maxSolutions && solver.solve()) {
+                int[][] solution = encoder.decode(solver);
+                solutions.add(solution);
+                // Block this solution so the next call to solve() must find a different one
+                if (!solver.addClause(encoder.blockingClause(puzzle, solution))) break;
+            }
+        }
+
+        // Reporting the results
+        if (solutions.isEmpty()) {
+            System.out.println("No solution found with SAT.");
+        } else {
+            System.out.println("Total SAT Solutions Found: " + solutions.size());
+        }
+        System.out.println("SAT completed with " + solver.getDecisions() + " decisions and "
+                + solver.getConflicts() + " conflicts (" + solver.getNumVars() + " variables, "
+                + solver.getNumClauses() + " clauses).");
+        if (event.shouldCommit()) {
+            event.engine = "SAT";
+            event.clues = Utils.countClues(puzzle);
+            event.nodes = solver.getDecisions();
+            event.solutions = solutions.size();
+            event.commit();
+        }
+        return solutions;
+    }
+}
@@ -0,0 +1,218 @@
+package sudoku;
+
+import java.util.*;
+
+/**
+ * SolutionCounter.java
+ *
+ * Counts the solutions of a Sudoku puzzle without ever building a solution grid.
+ *
+ * The search keeps one bitmask per row, column and box (bit d set = digit d used), so the
+ * candidates of a cell are a single OR and NOT. All state lives in arrays allocated once per count:
+ * the list of empty cells is reordered in place (most constrained cell first), so no memory is
+ * allocated per search node. Counting stops as soon as the cap is reached, which makes
+ * "is this puzzle unique?" (cap 2) and "is it solvable?" (cap 1) cheap.
+ *
+ * For uncapped counts of puzzles with very large solution sets, the search tree can be split at
+ * its first levels and the branches counted in parallel on all cores.
+ */
+public class SolutionCounter {
+    private static final int SPLIT_FACTOR = 8; // Aim for this many parallel branches per core
+
+    /**
+     * Counts solutions, stopping once the cap is reached.
+     *
+     * @param puzzle the puzzle, with 0 for empty cells
+     * @param cap    the count to stop at (e.g. 2 for a uniqueness check); 0 or less means no cap
+     * @return the number of solutions, or the cap if there are at least that many
+     */
+    public long countSolutions(int[][] puzzle, long cap) {
+        Search search = new Search(puzzle.length);
+        if (!search.load(puzzle)) return 0; // Clues contradict each other
+        return search.count(cap <= 0 ? Long.MAX_VALUE : cap);
+    }
+
+    /**
+     * Counts all solutions, splitting the search tree across all available cores.
+     * Useful for puzzles with very large solution sets, where no cap is wanted.
+     *
+     * @param puzzle the puzzle, with 0 for empty cells
+     * @return the total number of solutions
+     */
+    public long countSolutionsParallel(int[][] puzzle) {
+        Search root = new Search(puzzle.length);
+        if (!root.load(puzzle)) return 0;
+
+        // Expand the top of the tree breadth-first until there is enough work to share out
+        int target = Runtime.getRuntime().availableProcessors() * SPLIT_FACTOR;
+        List<int[]> frontier = new ArrayList<>();
+        frontier.add(root.cells.clone());
+        long solvedDuringSplit = 0;
+        while (frontier.size() < target) {
+            List<int[]> next = new ArrayList<>();
+            for (int[] cells : frontier) {
+                Search search = new Search(puzzle.length);
+                search.load(cells);
+                int cell = search.mostConstrainedCell();
+                if (cell == -1) {
+                    solvedDuringSplit++; // Already a complete solution
+                    continue;
+                }
+                int candidates = search.candidates(cell);
+                while (candidates != 0) {
+                    int bit = candidates & -candidates;
+                    candidates ^= bit;
+                    int[] child = cells.clone();
+                    child[cell] = Integer.numberOfTrailingZeros(bit);
+                    next.add(child);
+                }
+            }
+            if (next.isEmpty()) return solvedDuringSplit;
+            frontier = next;
+        }
+
+        return solvedDuringSplit + frontier.parallelStream()
+                .mapToLong(cells -> {
+                    Search search = new Search(puzzle.length);
+                    return search.load(cells) ? search.count(Long.MAX_VALUE) : 0;
+                })
+                .sum();
+    }
+
+    /**
+     * The search state for one thread. Every array is sized once in the constructor.
+     */
+    private static final class Search {
+        private final int gridSize;
+        private final int all;          // Bits 1..gridSize set
+        private final int[] rowOf, colOf, boxOf; // Unit indices of each cell
+        private final int[] cells;      // Loaded values, flattened (0 = empty); the search itself only uses the masks
+        private final int[] rowMask, colMask, boxMask;
+        private final int[] empty;      // Empty cells; positions before the current depth are filled
+        private int emptyCount;
+        private long count;
+        private long cap;
+
+        Search(int gridSize) {
+            int boxSize = (int) Math.round(Math.sqrt(gridSize));
+            if (boxSize * boxSize != gridSize || gridSize > 30) {
+                throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+            }
+            this.gridSize = gridSize;
+            this.all = ((1 << gridSize) - 1) << 1;
+            int total = gridSize * gridSize;
+            rowOf = new int[total];
+            colOf = new int[total];
+            boxOf = new int[total];
+            for (int cell = 0; cell < total; cell++) {
+                rowOf[cell] = cell / gridSize;
+                colOf[cell] = cell % gridSize;
+                boxOf[cell] = (rowOf[cell] / boxSize) * boxSize + colOf[cell] / boxSize;
+            }
+            cells = new int[total];
+            rowMask = new int[gridSize];
+            colMask = new int[gridSize];
+            boxMask = new int[gridSize];
+            empty = new int[total];
+        }
+
+        // Load a grid given as rows; returns false if two clues conflict
+        boolean load(int[][] puzzle) {
+            int[] flat = new int[gridSize * gridSize];
+            for (int row = 0; row < gridSize; row++) {
+                if (puzzle[row].length != gridSize) throw new IllegalArgumentException("Puzzle must be square");
+                System.arraycopy(puzzle[row], 0, flat, row * gridSize, gridSize);
+            }
+            return load(flat);
+        }
+
+        // Load a flattened grid; returns false if two clues conflict
+        boolean load(int[] values) {
+            emptyCount = 0;
+            for (int cell = 0; cell < values.length; cell++) {
+                int value = values[cell];
+                cells[cell] = value;
+                if (value == 0) {
+                    empty[emptyCount++] = cell;
+                    continue;
+                }
+                if (value < 0 || value > gridSize) {
+                    throw new IllegalArgumentException("Invalid value " + value + " in cell " + cell);
+                }
+                int bit = 1 << value;
+                if (((rowMask[rowOf[cell]] | colMask[colOf[cell]] | boxMask[boxOf[cell]]) & bit) != 0) return false;
+                rowMask[rowOf[cell]] |= bit;
+                colMask[colOf[cell]] |= bit;
+                boxMask[boxOf[cell]] |= bit;
+            }
+            return true;
+        }
+
+        long count(long cap) {
+            this.count = 0;
+            this.cap = cap;
+            search(0);
+            return count;
+        }
+
+        int candidates(int cell) {
+            return all & ~(rowMask[rowOf[cell]] | colMask[colOf[cell]] | boxMask[boxOf[cell]]);
+        }
+
+        // The empty cell with the fewest candidates, or -1 if the grid is full
+        int mostConstrainedCell() {
+            int best = -1, bestCount = Integer.MAX_VALUE;
+            for (int i = 0; i < emptyCount; i++) {
+                int n = Integer.bitCount(candidates(empty[i]));
+                if (n < bestCount) {
+                    best = empty[i];
+                    bestCount = n;
+                }
+            }
+            return best;
+        }
+
+        // Depth-first count; empty[depth..emptyCount) are the cells still to fill
+        private void search(int depth) {
+            if (depth == emptyCount) {
+                count++;
+                return;
+            }
+
+            // Pick the most constrained remaining cell and move it to position 'depth'
+            int bestIndex = depth, bestCandidates = 0, bestCount = Integer.MAX_VALUE;
+            for (int i = depth; i < emptyCount; i++) {
+                int c = candidates(empty[i]);
+                int n = Integer.bitCount(c);
+                if (n < bestCount) {
+                    bestIndex = i;
+                    bestCandidates = c;
+                    bestCount = n;
+                    if (n <= 1) break; // Cannot do better than a forced (or dead) cell
+                }
+            }
+            if (bestCount == 0) return; // Dead end: some cell has no candidate
+
+            int cell = empty[bestIndex];
+            empty[bestIndex] = empty[depth];
+            empty[depth] = cell;
+
+            int row = rowOf[cell], col = colOf[cell], box = boxOf[cell];
+            int candidates = bestCandidates;
+            while (candidates != 0) {
+                int bit = candidates & -candidates; // Lowest remaining candidate
+                candidates ^= bit;
+
+                rowMask[row] |= bit;
+                colMask[col] |= bit;
+                boxMask[box] |= bit;
+                search(depth + 1);
+                rowMask[row] ^= bit;
+                colMask[col] ^= bit;
+                boxMask[box] ^= bit;
+
+                if (count >= cap) return; // Cap reached: stop the whole search
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package sudoku;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * SolutionValidator.java
+ *
+ * Checks many solved grids at once against every row, column and box constraint.
+ * (The isSolved methods of the solvers only check that no cell is empty.)
+ *
+ * Grids are packed one byte per cell, one grid after another, in a single byte array.
+ * Each cell value is turned into a bit through a 256-entry table (valid digits map to bit d,
+ * anything else to bit 0), and the bits are OR-ed into one mask per row, column and box.
+ * A unit holds gridSize cells, so its mask equals the "all digits" mask only when every
+ * digit appears exactly once. The inner loop has no data-dependent branches, and large batches
+ * are split into chunks validated in parallel.
+ *
+ * The scalar loop in this class is the fallback. When the JVM runs with
+ * --add-modules jdk.incubator.vector, each chunk is checked by {@link VectorSolutionValidator}
+ * instead, which does the same mask checks with one grid per SIMD lane.
+ */
+public class SolutionValidator {
+    private static final int PARALLEL_THRESHOLD = 4096; // Grids below this are checked on one thread
+    private static final int CHUNK_SIZE = 1024;         // Grids per parallel task
+    // The Vector API is incubating, so it is only used when the module was added to the boot layer
+    private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private final int gridSize;
+    private final int cellsPerGrid;
+    private final int full;             // Bits 1..gridSize set
+    private final int[] bitOf = new int[256]; // Cell byte -> digit bit (bit 0 marks an invalid value)
+    private final int[] boxOf;          // Box index of each cell
+    private final VectorSolutionValidator vector; // SIMD path, or null when the Vector API is not available
+
+    /**
+     * @param gridSize the size of the grids to validate (e.g., 9); must be a perfect square up to 25
+     */
+    public SolutionValidator(int gridSize) {
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (gridSize <= 0 || gridSize > 25 || boxSize * boxSize != gridSize) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.cellsPerGrid = gridSize * gridSize;
+        this.full = ((1 << gridSize) - 1) << 1;
+
+        Arrays.fill(bitOf, 1);
+        for (int d = 1; d <= gridSize; d++) bitOf[d] = 1 << d;
+
+        boxOf = new int[cellsPerGrid];
+        for (int cell = 0; cell < cellsPerGrid; cell++) {
+            int row = cell / gridSize, col = cell % gridSize;
+            boxOf[cell] = (row / boxSize) * boxSize + col / boxSize;
+        }
+        vector = VECTOR_API ? new VectorSolutionValidator(gridSize, boxOf) : null;
+    }
+
+    /**
+     * @return true if grids are checked with the Vector API, false if the scalar fallback is used
+     */
+    public boolean isVectorized() {
+        return vector != null;
+    }
+
+    /**
+     * Validates packed grids and reports the invalid ones.
+     *
+     * @param grids     the grids, one byte per cell, gridSize * gridSize bytes per grid
+     * @param gridCount the number of grids in the array
+     * @return the indices of the invalid grids, in increasing order (empty if all are valid)
+     */
+    public int[] findInvalid(byte[] grids, int gridCount) {
+        if ((long) gridCount * cellsPerGrid > grids.length) {
+            throw new IllegalArgumentException("Array holds fewer than " + gridCount + " grids");
+        }
+        boolean[] invalid = new boolean[gridCount];
+
+        if (gridCount < PARALLEL_THRESHOLD) {
+            validateRange(grids, 0, gridCount, invalid);
+        } else {
+            int chunks = (gridCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            // Each chunk writes only its own slice of 'invalid', so no synchronization is needed
+            IntStream.range(0, chunks).parallel().forEach(chunk -> validateRange(grids,
+                    chunk * CHUNK_SIZE, Math.min(gridCount, (chunk + 1) * CHUNK_SIZE), invalid));
+        }
+
+        int count = 0;
+        for (boolean bad : invalid) if (bad) count++;
+        int[] indices = new int[count];
+        for (int g = 0, k = 0; g < gridCount; g++) if (invalid[g]) indices[k++] = g;
+        return indices;
+    }
+
+    /**
+     * Validates a list of grids and reports the invalid ones.
+     *
+     * @param grids the grids to check
+     * @return the indices of the invalid grids, in increasing order (empty if all are valid)
+     */
+    public int[] findInvalid(List<int[][]> grids) {
+        return findInvalid(pack(grids), grids.size());
+    }
+
+    /**
+     * Validates solutions of one puzzle: each must be a valid grid and keep every clue of the puzzle.
+     *
+     * @param puzzle    the puzzle that was solved
+     * @param solutions the solutions returned by a solver
+     * @return the indices of the invalid solutions, in increasing order (empty if all are valid)
+     */
+    public int[] findInvalid(int[][] puzzle, List<int[][]> solutions) {
+        byte[] packed = pack(solutions);
+        boolean[] invalid = new boolean[solutions.size()];
+        for (int index : findInvalid(packed, solutions.size())) invalid[index] = true;
+
+        // A valid grid is still a wrong answer if it changed a clue
+        for (int g = 0; g < solutions.size(); g++) {
+            int base = g * cellsPerGrid;
+            for (int cell = 0; cell < cellsPerGrid && !invalid[g]; cell++) {
+                int clue = puzzle[cell / gridSize][cell % gridSize];
+                if (clue != 0 && clue != packed[base + cell]) invalid[g] = true;
+            }
+        }
+
+        int count = 0;
+        for (boolean bad : invalid) if (bad) count++;
+        int[] indices = new int[count];
+        for (int g = 0, k = 0; g < invalid.length; g++) if (invalid[g]) indices[k++] = g;
+        return indices;
+    }
+
+    /**
+     * Checks a single grid.
+     *
+     * @param grid the grid to check
+     * @return true if every row, column and box contains each digit exactly once
+     */
+    public boolean isValid(int[][] grid) {
+        return findInvalid(Collections.singletonList(grid)).length == 0;
+    }
+
+    /**
+     * Packs grids into the one-byte-per-cell layout used by {@link #findInvalid(byte[], int)}.
+     * Values that do not fit in a byte are stored as 0, which validation rejects.
+     *
+     * @param grids the grids to pack
+     * @return the packed array
+     */
+    public byte[] pack(List<int[][]> grids) {
+        byte[] packed = new byte[grids.size() * cellsPerGrid];
+        int offset = 0;
+        for (int[][] grid : grids) {
+            if (grid.length != gridSize) throw new IllegalArgumentException("Expected a " + gridSize + "x" + gridSize + " grid");
+            for (int[] row : grid) {
+                for (int col = 0; col < gridSize; col++) {
+                    int value = row[col];
+                    packed[offset++] = (byte) (value >= 0 && value <= 255 ? value : 0);
+                }
+            }
+        }
+        return packed;
+    }
+
+    // Validate grids [from, to) and mark the invalid ones
+    private void validateRange(byte[] grids, int from, int to, boolean[] invalid) {
+        if (vector != null) {
+            vector.validateRange(grids, from, to, invalid);
+            return;
+        }
+        int[] rowMask = new int[gridSize], colMask = new int[gridSize], boxMask = new int[gridSize];
+        for (int g = from; g < to; g++) {
+            Arrays.fill(rowMask, 0);
+            Arrays.fill(colMask, 0);
+            Arrays.fill(boxMask, 0);
+
+            int base = g * cellsPerGrid;
+            for (int row = 0, cell = 0; row < gridSize; row++) {
+                int mask = 0;
+                for (int col = 0; col < gridSize; col++, cell++) {
+                    int bit = bitOf[grids[base + cell] & 0xFF];
+                    mask |= bit;
+                    colMask[col] |= bit;
+                    boxMask[boxOf[cell]] |= bit;
+                }
+                rowMask[row] = mask;
+            }
+
+            // Any unit missing a digit (or holding an invalid value) leaves a difference from 'full'
+            int difference = 0;
+            for (int i = 0; i < gridSize; i++) {
+                difference |= (rowMask[i] ^ full) | (colMask[i] ^ full) | (boxMask[i] ^ full);
+            }
+            invalid[g] = difference != 0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package sudoku;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event covering one run of a solver, from start to end.
+ *
+ * Solvers create the event when they start and commit it when they finish. When no recording is
+ * running, shouldCommit() is false and the fields are never filled in, so the cost is negligible.
+ * Record in production with, for example: jcmd &lt;pid&gt; JFR.start name=sudoku settings=profile
+ */
+@Name("sudoku.Solve")
+@Label("Sudoku Solve")
+@Category({"Sudoku", "Solver"})
+@Description("One run of a Sudoku solving engine")
+public class SolveEvent extends Event {
+    @Label("Engine")
+    @Description("Solving engine (BFS, DLS, Hybrid, SAT, LocalSearch)")
+    public String engine;
+
+    @Label("Clues")
+    @Description("Number of filled cells in the puzzle")
+    public int clues;
+
+    @Label("Nodes")
+    @Description("Search states explored (iterations, decisions or moves, depending on the engine)")
+    public long nodes;
+
+    @Label("Solutions")
+    @Description("Number of solutions returned")
+    public int solutions;
+}
@@ -0,0 +1,289 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * SolvingSession.java
+ *
+ * Holds one puzzle while a player works on it, so every move does not have to re-run a solver
+ * on a fresh copy of the whole grid.
+ *
+ * How it stays cheap:
+ * - Row, column and box bitmasks are updated on each move, so placing, clearing, undoing and
+ *   reading a cell's candidates are all O(1).
+ * - A solution found by an earlier search is cached. The session counts how many filled cells
+ *   disagree with it; while that count is 0 the cached solution still fits the grid, so
+ *   isStillSolvable() and hint() answer without searching.
+ * - When a search proves the grid unsolvable, that verdict is kept until the player removes a
+ *   value (adding values can never make an unsolvable grid solvable again).
+ */
+public class SolvingSession {
+    private final int gridSize;
+    private final int all;              // Bits 1..gridSize set
+    private final int[] rowOf, colOf, boxOf; // Unit indices of each cell
+    private final int[] cells;          // Current values, flattened (0 = empty)
+    private final boolean[] clue;       // True for cells given in the puzzle
+    private final int[] rowMask, colMask, boxMask; // Digits used in each unit (bit d = digit d)
+    private final int[] empty;          // Scratch list of empty cells used by the search
+
+    // Undo history: the cell changed by each move and the value it held before
+    private int[] undoCells = new int[64];
+    private int[] undoValues = new int[64];
+    private int undoSize;
+
+    private int[] solution;             // Cached solution, or null if none is known
+    private int mismatches;             // Filled cells that disagree with the cached solution
+    private int unsolvableDepth = -1;   // History size at which the grid was proven unsolvable (-1 = unknown)
+    private long searchNodes;           // Total nodes visited by searches in this session
+
+    /**
+     * Starts a session for the given puzzle.
+     *
+     * @param puzzle the puzzle, with 0 for empty cells; it is copied, not modified
+     * @throws IllegalArgumentException if the grid size is not a perfect square or two clues conflict
+     */
+    public SolvingSession(int[][] puzzle) {
+        gridSize = puzzle.length;
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (boxSize * boxSize != gridSize || gridSize > 30) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+        all = ((1 << gridSize) - 1) << 1;
+
+        int total = gridSize * gridSize;
+        rowOf = new int[total];
+        colOf = new int[total];
+        boxOf = new int[total];
+        cells = new int[total];
+        clue = new boolean[total];
+        rowMask = new int[gridSize];
+        colMask = new int[gridSize];
+        boxMask = new int[gridSize];
+        empty = new int[total];
+
+        for (int cell = 0; cell < total; cell++) {
+            rowOf[cell] = cell / gridSize;
+            colOf[cell] = cell % gridSize;
+            boxOf[cell] = (rowOf[cell] / boxSize) * boxSize + colOf[cell] / boxSize;
+
+            int value = puzzle[rowOf[cell]][colOf[cell]];
+            if (value == 0) continue;
+            if (value < 0 || value > gridSize || (candidates(cell) & (1 << value)) == 0) {
+                throw new IllegalArgumentException("Invalid clue " + value + " at (" + rowOf[cell] + ", " + colOf[cell] + ")");
+            }
+            set(cell, value);
+            clue[cell] = true;
+        }
+    }
+
+    /**
+     * Places a digit in a cell, or clears the cell when value is 0. Runs in O(1).
+     *
+     * @param row   the row of the cell
+     * @param col   the column of the cell
+     * @param value the digit to place, or 0 to clear the cell
+     * @return false if the cell is a clue or the digit already appears in its row, column or box
+     */
+    public boolean place(int row, int col, int value) {
+        int cell = row * gridSize + col;
+        if (clue[cell] || value < 0 || value > gridSize) return false;
+
+        int previous = cells[cell];
+        if (previous == value) return true;
+        if (previous != 0) clear(cell);
+        if (value != 0 && (candidates(cell) & (1 << value)) == 0) {
+            if (previous != 0) set(cell, previous); // Reject the move and restore the old value
+            return false;
+        }
+        if (value != 0) set(cell, value);
+
+        // Removing a value may make an unsolvable grid solvable again
+        if (previous != 0) unsolvableDepth = -1;
+
+        if (undoSize == undoCells.length) {
+            undoCells = Arrays.copyOf(undoCells, undoSize * 2);
+            undoValues = Arrays.copyOf(undoValues, undoSize * 2);
+        }
+        undoCells[undoSize] = cell;
+        undoValues[undoSize] = previous;
+        undoSize++;
+        return true;
+    }
+
+    /**
+     * Reverts the most recent move. Runs in O(1).
+     *
+     * @return false if there is no move to undo
+     */
+    public boolean undo() {
+        if (undoSize == 0) return false;
+        undoSize--;
+        int cell = undoCells[undoSize];
+        if (cells[cell] != 0) clear(cell);
+        if (undoValues[undoSize] != 0) set(cell, undoValues[undoSize]);
+
+        // The unsolvable verdict only holds for states reached after it was proven
+        if (undoSize < unsolvableDepth) unsolvableDepth = -1;
+        return true;
+    }
+
+    /**
+     * Returns the digits that can still go in a cell without breaking a row, column or box.
+     *
+     * @return a bitmask where bit d is set if digit d is allowed (0 for filled cells)
+     */
+    public int getCandidates(int row, int col) {
+        int cell = row * gridSize + col;
+        return cells[cell] != 0 ? 0 : candidates(cell);
+    }
+
+    public int getValue(int row, int col) {
+        return cells[row * gridSize + col];
+    }
+
+    public boolean isClue(int row, int col) {
+        return clue[row * gridSize + col];
+    }
+
+    public boolean isComplete() {
+        for (int value : cells) if (value == 0) return false;
+        return true;
+    }
+
+    public long getSearchNodes() {
+        return searchNodes;
+    }
+
+    /**
+     * Checks whether the current grid can still be completed.
+     * Answers in O(1) when the cached solution still fits or the grid is already known to be unsolvable;
+     * otherwise it searches once and caches the result.
+     *
+     * @return true if at least one solution extends the current grid
+     */
+    public boolean isStillSolvable() {
+        if (solution != null && mismatches == 0) return true;
+        if (unsolvableDepth >= 0) return false;
+
+        int emptyCount = 0;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] == 0) empty[emptyCount++] = cell;
+        }
+        if (search(0, emptyCount)) {
+            // The search leaves its solution in 'cells'; cache it and restore the player's grid
+            int[] found = cells.clone();
+            for (int i = 0; i < emptyCount; i++) clear(empty[i]);
+            solution = found;
+            mismatches = 0;
+            return true;
+        }
+        unsolvableDepth = undoSize;
+        return false;
+    }
+
+    /**
+     * Suggests the next move, preferring a cell that has a single candidate left.
+     *
+     * @return {row, col, digit} for an empty cell, or null if the grid is complete or cannot be solved
+     */
+    public int[] hint() {
+        if (!isStillSolvable()) return null;
+
+        int target = -1;
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != 0) continue;
+            if (Integer.bitCount(candidates(cell)) == 1) {
+                target = cell; // Easiest cell for the player to verify
+                break;
+            }
+            if (target == -1) target = cell;
+        }
+        if (target == -1) return null;
+        return new int[]{rowOf[target], colOf[target], solution[target]};
+    }
+
+    /**
+     * Returns a solution consistent with the current grid, reusing the cached one when possible.
+     *
+     * @return the solved grid, or null if the current grid cannot be solved
+     */
+    public int[][] getSolution() {
+        if (!isStillSolvable()) return null;
+        int[][] grid = new int[gridSize][gridSize];
+        for (int row = 0; row < gridSize; row++) {
+            System.arraycopy(solution, row * gridSize, grid[row], 0, gridSize);
+        }
+        return grid;
+    }
+
+    // Depth-first search over empty[depth..emptyCount), most constrained cell first.
+    // On success the cells stay filled with the solution; on failure everything is undone.
+    private boolean search(int depth, int emptyCount) {
+        searchNodes++;
+        if (depth == emptyCount) return true;
+
+        int bestIndex = depth, bestCandidates = 0, bestCount = Integer.MAX_VALUE;
+        for (int i = depth; i < emptyCount; i++) {
+            int c = candidates(empty[i]);
+            int n = Integer.bitCount(c);
+            if (n < bestCount) {
+                bestIndex = i;
+                bestCandidates = c;
+                bestCount = n;
+                if (n <= 1) break;
+            }
+        }
+        if (bestCount == 0) return false;
+
+        int cell = empty[bestIndex];
+        empty[bestIndex] = empty[depth];
+        empty[depth] = cell;
+
+        // Try digits the cached solution suggests first: earlier results often still apply nearby
+        int candidates = bestCandidates;
+        if (solution != null && (candidates & (1 << solution[cell])) != 0) {
+            candidates = (candidates & ~(1 << solution[cell]));
+            cells[cell] = solution[cell];
+            toggleMasks(cell, 1 << solution[cell]);
+            if (search(depth + 1, emptyCount)) return true;
+            toggleMasks(cell, 1 << solution[cell]);
+            cells[cell] = 0;
+        }
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+            cells[cell] = Integer.numberOfTrailingZeros(bit);
+            toggleMasks(cell, bit);
+            if (search(depth + 1, emptyCount)) return true;
+            toggleMasks(cell, bit); // Toggle the bit back off
+            cells[cell] = 0;
+        }
+        return false;
+    }
+
+    private int candidates(int cell) {
+        return all & ~(rowMask[rowOf[cell]] | colMask[colOf[cell]] | boxMask[boxOf[cell]]);
+    }
+
+    // Fill an empty cell and keep the masks and mismatch count up to date
+    private void set(int cell, int value) {
+        cells[cell] = value;
+        toggleMasks(cell, 1 << value);
+        if (solution != null && solution[cell] != value) mismatches++;
+    }
+
+    // Empty a filled cell and keep the masks and mismatch count up to date
+    private void clear(int cell) {
+        int value = cells[cell];
+        if (solution != null && solution[cell] != value) mismatches--;
+        toggleMasks(cell, 1 << value);
+        cells[cell] = 0;
+    }
+
+    // Toggle a digit bit in the cell's row, column and box masks
+    private void toggleMasks(int cell, int bit) {
+        rowMask[rowOf[cell]] ^= bit;
+        colMask[colOf[cell]] ^= bit;
+        boxMask[boxOf[cell]] ^= bit;
+    }
+}
@@ -0,0 +1,155 @@
+package sudoku;
+
+import java.util.List;
+
+/**
+ * SudokuCnfEncoder.java
+ *
+ * Translates a Sudoku grid into Conjunctive Normal Form (CNF) clauses for {@link CdclSolver},
+ * and decodes a satisfying assignment back into a grid.
+ *
+ * Variable x(cell, digit) is true when the cell holds that digit. The encoding uses:
+ * - Every cell holds at least one digit, and at most one digit.
+ * - Every edge of the constraint {@link Graph} forbids both endpoints from holding the same digit.
+ *   Variants such as diagonal Sudoku only need extra edges in the graph.
+ * - Every row, column and box contains every digit (redundant, but gives much stronger propagation).
+ * - Every clue becomes a unit clause.
+ */
+public class SudokuCnfEncoder {
+    private final int gridSize; // Number of rows/columns (e.g., 9)
+    private final int boxSize;  // Size of a box (e.g., 3)
+
+    /**
+     * @param gridSize the size of the grid; must be a perfect square (4, 9, 16, 25, ...)
+     */
+    public SudokuCnfEncoder(int gridSize) {
+        int boxSize = (int) Math.round(Math.sqrt(gridSize));
+        if (gridSize <= 0 || boxSize * boxSize != gridSize) {
+            throw new IllegalArgumentException("Grid size must be a perfect square: " + gridSize);
+        }
+        this.gridSize = gridSize;
+        this.boxSize = boxSize;
+    }
+
+    /**
+     * Returns the DIMACS variable meaning "cell holds digit".
+     *
+     * @param cell  the cell index (row * gridSize + col)
+     * @param digit the digit, from 1 to gridSize
+     * @return the variable number, starting at 1
+     */
+    public int variable(int cell, int digit) {
+        return cell * gridSize + digit;
+    }
+
+    /**
+     * Adds all clauses for the puzzle to the solver.
+     *
+     * @param puzzle the puzzle, with 0 for empty cells
+     * @param graph  the constraint graph (cells as nodes, edges between cells that must differ)
+     * @param solver the SAT solver receiving the clauses
+     * @return false if the clues already contradict each other
+     */
+    public boolean encode(int[][] puzzle, Graph graph, CdclSolver solver) {
+        int totalCells = gridSize * gridSize;
+        solver.ensureVars(totalCells * gridSize);
+        boolean ok = true;
+
+        // Clues first, so the remaining clauses are simplified against them as they are added
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int value = puzzle[row][col];
+                if (value < 0 || value > gridSize) {
+                    throw new IllegalArgumentException("Invalid value " + value + " at (" + row + ", " + col + ")");
+                }
+                if (value != 0) ok &= solver.addClause(variable(row * gridSize + col, value));
+            }
+        }
+
+        int[] clause = new int[gridSize];
+        for (int cell = 0; cell < totalCells; cell++) {
+            // At least one digit per cell
+            for (int d = 1; d <= gridSize; d++) clause[d - 1] = variable(cell, d);
+            ok &= solver.addClause(clause);
+
+            // At most one digit per cell
+            for (int d1 = 1; d1 <= gridSize; d1++) {
+                for (int d2 = d1 + 1; d2 <= gridSize; d2++) {
+                    ok &= solver.addClause(-variable(cell, d1), -variable(cell, d2));
+                }
+            }
+
+            // Neighbors in the constraint graph never share a digit (each edge encoded once)
+            List<Integer> neighbors = graph.getNeighbors(cell);
+            for (int other : neighbors) {
+                if (other <= cell) continue;
+                for (int d = 1; d <= gridSize; d++) {
+                    ok &= solver.addClause(-variable(cell, d), -variable(other, d));
+                }
+            }
+        }
+
+        // Every digit appears in every row, column and box
+        for (int unit = 0; unit < gridSize; unit++) {
+            for (int d = 1; d <= gridSize; d++) {
+                for (int i = 0; i < gridSize; i++) clause[i] = variable(unit * gridSize + i, d);
+                ok &= solver.addClause(clause); // Row
+
+                for (int i = 0; i < gridSize; i++) clause[i] = variable(i * gridSize + unit, d);
+                ok &= solver.addClause(clause); // Column
+
+                int boxRow = (unit / boxSize) * boxSize, boxCol = (unit % boxSize) * boxSize;
+                for (int i = 0; i < gridSize; i++) {
+                    clause[i] = variable((boxRow + i / boxSize) * gridSize + boxCol + i % boxSize, d);
+                }
+                ok &= solver.addClause(clause); // Box
+            }
+        }
+        return ok;
+    }
+
+    /**
+     * Reads the solver's model back into a grid.
+     *
+     * @param solver a solver whose last call to solve() returned true
+     * @return the solved grid
+     */
+    public int[][] decode(CdclSolver solver) {
+        int[][] grid = new int[gridSize][gridSize];
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                int cell = row * gridSize + col;
+                for (int d = 1; d <= gridSize; d++) {
+                    if (solver.modelValue(variable(cell, d))) {
+                        grid[row][col] = d;
+                        break;
+                    }
+                }
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Builds a clause that excludes the given solution, used to enumerate further solutions.
+     * Only the cells that were empty in the puzzle are needed, since the clues are fixed.
+     *
+     * @param puzzle   the original puzzle
+     * @param solution a solution of the puzzle
+     * @return the blocking clause in DIMACS form (empty if the puzzle had no empty cells)
+     */
+    public int[] blockingClause(int[][] puzzle, int[][] solution) {
+        int count = 0;
+        for (int[] row : puzzle) {
+            for (int cell : row) if (cell == 0) count++;
+        }
+        int[] clause = new int[count];
+        int k = 0;
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                if (puzzle[row][col] == 0) clause[k++] = -variable(row * gridSize + col, solution[row][col]);
+            }
+        }
+        return clause;
+    }
+}
@@ -1,11 +1,19 @@
 package sudoku;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 //The SudokuGenerator class generates random Sudoku puzzles based on the given difficulty level.
 //It ensures each puzzle has at least one valid solution before returning it.
+//Rated puzzles are unique-solution puzzles whose DifficultyGrader score falls in a requested band.
 
 public class SudokuGenerator {
+    private static final int MIN_RATED_CLUES = 22; // Fewest clues a rated candidate is dug down to
+    private static final int MAX_RATED_CLUES = 40; // Most clues a rated candidate keeps
+    private static final int MAX_RATED_CANDIDATES = 10_000; // Candidates graded before a band is given up on
+
+    private final SolutionCounter solutionCounter = new SolutionCounter(); // Used to validate generated puzzles
+    private final DifficultyGrader grader = new DifficultyGrader(); // Rates candidates for generateRatedPuzzle
 
     /**
      * Generates a Sudoku puzzle with the specified number of clues.
@@ -17,23 +25,37 @@ public class SudokuGenerator {
     public int[][] generatePuzzle(int clues) {
         int[][] puzzle;
         Random random = new Random();
+        GeneratorEvent event = new GeneratorEvent();
+        event.begin();
+        int attempts = 0;          // Random grids generated so far
+        long placementRetries = 0; // Random placements rejected so far
 
         // Continuously generate until a valid puzzle with a solution is found
         do {
+            attempts++;
             puzzle = new int[9][9];
 
             // Randomly populate the grid with the specified number of clues
             for (int i = 0; i < clues; i++) {
                 int row, col, num;
                 do {
+                    placementRetries++;
                     row = random.nextInt(9);
                     col = random.nextInt(9);
                     num = random.nextInt(9) + 1; // Numbers between 1 and 9
                 } while (puzzle[row][col] != 0 || !isValidPlacement(puzzle, row, col, num));
+                placementRetries--; // The last try succeeded
                 puzzle[row][col] = num;
             }
         } while (!isValidPuzzle(puzzle)); // Ensure the generated grid has at least one solution
 
+        if (event.shouldCommit()) {
+            event.mode = "Clues";
+            event.clues = clues;
+            event.attempts = attempts;
+            event.placementRetries = placementRetries;
+            event.commit();
+        }
         return puzzle;
     }
 
@@ -61,67 +83,136 @@ public class SudokuGenerator {
 
     /**
      * Verifies if the generated puzzle has at least one valid solution.
+     * The count stops at the first solution, so no grid is copied or solved in full.
      *
      * @param puzzle the generated Sudoku puzzle
      * @return true if the puzzle has a solution, false otherwise
      */
     private boolean isValidPuzzle(int[][] puzzle) {
-        return solveSudoku(copyGrid(puzzle));
+        return solutionCounter.countSolutions(puzzle, 1) > 0;
     }
 
     /**
-     * Solves the Sudoku puzzle using a backtracking algorithm.
-     * This is used internally to validate puzzles during generation.
+     * Checks whether a puzzle has exactly one solution.
+     * Counting stops at two solutions, which is enough to rule out uniqueness.
      *
-     * @param grid the Sudoku grid to solve
-     * @return true if the puzzle can be solved, false otherwise
+     * @param puzzle the Sudoku puzzle to check
+     * @return true if the puzzle has a single solution, false otherwise
      */
-    private boolean solveSudoku(int[][] grid) {
-        int[] emptyCell = findEmptyCell(grid);
-        if (emptyCell == null) return true; // No empty cells mean the puzzle is solved
-
-        int row = emptyCell[0], col = emptyCell[1];
-
-        for (int num = 1; num <= 9; num++) {
-            if (isValidPlacement(grid, row, col, num)) {
-                grid[row][col] = num;
-
-                // Recursively attempt to solve the rest of the puzzle
-                if (solveSudoku(grid)) return true;
-
-                grid[row][col] = 0; // Backtrack
-            }
-        }
-        return false; // Backtracking failed
+    public boolean hasUniqueSolution(int[][] puzzle) {
+        return solutionCounter.countSolutions(puzzle, 2) == 1;
     }
 
     /**
-     * Finds the first empty cell in the grid (represented by 0).
+     * Generates a puzzle with a unique solution whose difficulty score lies in [minScore, maxScore].
+     * Candidates are made in parallel batches: a random full grid is dug down to a random clue count
+     * while the solution stays unique, then the whole batch is graded in parallel. Grading of a
+     * candidate stops as soon as its score passes maxScore, so candidates that are clearly too hard
+     * cost little. Some bands cannot be reached (singles alone already score about one point per
+     * empty cell), so the search gives up after a fixed number of candidates.
      *
-     * @param grid the Sudoku grid
-     * @return an array with row and column indices of the empty cell, or null if none found
+     * @param minScore the lowest acceptable score (see {@link DifficultyGrader})
+     * @param maxScore the highest acceptable score
+     * @return a unique-solution 9x9 puzzle within the band
+     * @throws IllegalArgumentException if the band is empty or no candidate fell in it
      */
-    private int[] findEmptyCell(int[][] grid) {
-        for (int row = 0; row < grid.length; row++) {
-            for (int col = 0; col < grid[row].length; col++) {
-                if (grid[row][col] == 0) return new int[]{row, col};
+    public int[][] generateRatedPuzzle(int minScore, int maxScore) {
+        if (minScore > maxScore) throw new IllegalArgumentException("Empty rating band: " + minScore + ".." + maxScore);
+        GeneratorEvent event = new GeneratorEvent();
+        event.begin();
+        int batchSize = Runtime.getRuntime().availableProcessors() * 4;
+        int attempts = 0; // Candidates graded so far
+        long seed = new Random().nextLong();
+
+        while (attempts < MAX_RATED_CANDIDATES) {
+            long batchSeed = seed + attempts;
+            List<int[][]> candidates = IntStream.range(0, batchSize).parallel()
+                    .mapToObj(i -> uniqueCandidate(new Random(batchSeed + i)))
+                    .toList();
+            List<DifficultyGrader.Grade> grades = grader.gradeAll(candidates, maxScore);
+
+            for (int i = 0; i < batchSize; i++) {
+                attempts++;
+                DifficultyGrader.Grade grade = grades.get(i);
+                if (!grade.isStoppedEarly() && grade.getScore() >= minScore && grade.getScore() <= maxScore) {
+                    int[][] puzzle = candidates.get(i);
+                    commitRatedEvent(event, minScore, maxScore, attempts, puzzle, grade);
+                    return puzzle;
+                }
             }
         }
-        return null; // No empty cells
+        commitRatedEvent(event, minScore, maxScore, attempts, null, null);
+        throw new IllegalArgumentException("No puzzle found in rating band " + minScore + ".." + maxScore
+                + " after " + attempts + " candidates");
+    }
+
+    // Record a rated generation; puzzle and grade are null if nothing in the band was found
+    private void commitRatedEvent(GeneratorEvent event, int minScore, int maxScore, int attempts,
+                                  int[][] puzzle, DifficultyGrader.Grade grade) {
+        if (!event.shouldCommit()) return;
+        event.mode = "Rated";
+        event.minScore = minScore;
+        event.maxScore = maxScore;
+        event.attempts = attempts;
+        event.clues = puzzle == null ? 0 : Utils.countClues(puzzle);
+        event.score = grade == null ? 0 : grade.getScore();
+        event.commit();
     }
 
     /**
-     * Creates a deep copy of the given Sudoku grid.
-     * This avoids altering the original grid during validation or solving.
+     * Returns the difficulty grade of a puzzle.
      *
-     * @param grid the Sudoku grid to copy
-     * @return a new grid that is a deep copy of the original
+     * @param puzzle the Sudoku puzzle to rate
+     * @return the grade, with the score and the hardest technique needed
      */
-    private int[][] copyGrid(int[][] grid) {
-        int[][] copy = new int[grid.length][grid[0].length];
-        for (int row = 0; row < grid.length; row++) {
-            System.arraycopy(grid[row], 0, copy[row], 0, grid[row].length);
+    public DifficultyGrader.Grade grade(int[][] puzzle) {
+        return grader.grade(puzzle);
+    }
+
+    // Dig a random full grid down to a random clue count, removing only clues that keep the solution unique
+    private int[][] uniqueCandidate(Random random) {
+        int[][] puzzle = new int[9][9];
+        fillRandomly(puzzle, 0, random);
+        int targetClues = MIN_RATED_CLUES + random.nextInt(MAX_RATED_CLUES - MIN_RATED_CLUES + 1);
+
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++) cells[i] = i;
+        for (int i = 80; i > 0; i--) { // Fisher-Yates shuffle of the removal order
+            int j = random.nextInt(i + 1);
+            int swap = cells[i];
+            cells[i] = cells[j];
+            cells[j] = swap;
+        }
+
+        int clues = 81;
+        for (int i = 0; i < 81 && clues > targetClues; i++) {
+            int row = cells[i] / 9, col = cells[i] % 9;
+            int value = puzzle[row][col];
+            puzzle[row][col] = 0;
+            if (hasUniqueSolution(puzzle)) clues--;
+            else puzzle[row][col] = value; // Removing it would allow a second solution
+        }
+        return puzzle;
+    }
+
+    // Fill the grid from the given cell onward with a random valid solution (randomized backtracking)
+    private boolean fillRandomly(int[][] grid, int cell, Random random) {
+        if (cell == 81) return true;
+        int row = cell / 9, col = cell % 9;
+        int[] order = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = 8; i > 0; i--) { // Try the digits in a random order
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int num : order) {
+            if (isValidPlacement(grid, row, col, num)) {
+                grid[row][col] = num;
+                if (fillRandomly(grid, cell + 1, random)) return true;
+            }
         }
-        return copy;
+        grid[row][col] = 0;
+        return false;
     }
 }
\ No newline at end of file
@@ -8,17 +8,24 @@
  */
 package sudoku;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SudokuSolverBase acts as a bridge between the different solving algorithms.
- * It provides methods to solve a given Sudoku puzzle using BFS, DLS, or Hybrid approaches.
+ * It provides methods to solve a given Sudoku puzzle using BFS, DLS, Hybrid, SAT, or local search approaches.
  * This design avoids redundancy by delegating tasks to specialized solver classes.
  */
 public class SudokuSolverBase {
     private final BFsSolver bfsSolver;   // Solver using Breadth-First Search
     private final DLsSolver dlsSolver;  // Solver using Depth-Limited Search
     private final HybridSolver hybridSolver; // Solver combining BFS and DLS strategies
+    private final SatSolver satSolver;       // Solver encoding the puzzle as SAT (CDCL)
+    private final LocalSearchSolver localSearchSolver; // Parallel simulated annealing for large grids
+    private final SolutionCounter solutionCounter; // Counts solutions without building grids
+    private final DifficultyGrader difficultyGrader; // Rates puzzles by the human techniques they need
+    private final Map<Integer, BatchSolver> batchSolvers = new HashMap<>(); // One per grid size, kept for its statistics
 
     /**
      * Constructor initializes instances of all solvers.
@@ -28,6 +35,10 @@ public class SudokuSolverBase {
         bfsSolver = new BFsSolver();
         dlsSolver = new DLsSolver();
         hybridSolver = new HybridSolver();
+        satSolver = new SatSolver();
+        localSearchSolver = new LocalSearchSolver();
+        solutionCounter = new SolutionCounter();
+        difficultyGrader = new DifficultyGrader();
     }
 
     /**
@@ -64,4 +75,134 @@ public class SudokuSolverBase {
     public List<int[][]> solveWithHybrid(int[][] puzzle) {
         return hybridSolver.solveWithHybrid(puzzle);
     }
+
+    /**
+     * Solves a Sudoku puzzle by encoding it as SAT and running the built-in CDCL solver.
+     * Works for any perfect-square grid size (9x9, 16x16, 25x25, ...).
+     *
+     * @param puzzle       the Sudoku puzzle to solve
+     * @param maxSolutions the maximum number of solutions to enumerate
+     * @return a list of the valid solutions found using SAT
+     */
+    public List<int[][]> solveWithSAT(int[][] puzzle, int maxSolutions) {
+        return satSolver.solveWithSAT(puzzle, maxSolutions);
+    }
+
+    /**
+     * Solves a Sudoku variant by encoding it as SAT, using the given constraint graph.
+     * Extra edges in the graph (e.g. from Graph.addDiagonalEdges) add variant constraints.
+     *
+     * @param puzzle       the Sudoku puzzle to solve
+     * @param graph        the constraint graph describing which cells must differ
+     * @param maxSolutions the maximum number of solutions to enumerate
+     * @return a list of the valid solutions found using SAT
+     */
+    public List<int[][]> solveWithSAT(int[][] puzzle, Graph graph, int maxSolutions) {
+        return satSolver.solveWithSAT(puzzle, graph, maxSolutions);
+    }
+
+    /**
+     * Solves a Sudoku puzzle using parallel simulated annealing over box permutations.
+     * Intended for large grids (16x16 and 25x25) where exhaustive search does not scale.
+     * Local search cannot prove unsolvability, so it gives up after the time limit.
+     *
+     * @param puzzle          the Sudoku puzzle to solve
+     * @param timeLimitMillis the maximum search time in milliseconds
+     * @return a list with the first solution found, or an empty list if none was found in time
+     * @throws IllegalArgumentException if the grid size is not supported by the local search solver
+     */
+    public List<int[][]> solveWithLocalSearch(int[][] puzzle, long timeLimitMillis) {
+        return localSearchSolver.solveWithLocalSearch(puzzle, timeLimitMillis);
+    }
+
+    /**
+     * Counts the solutions of a puzzle without storing them, stopping once the cap is reached.
+     * Use a cap of 1 to check solvability and 2 to check uniqueness.
+     *
+     * @param puzzle the Sudoku puzzle to count solutions for
+     * @param cap    the count to stop at; 0 or less counts every solution
+     * @return the number of solutions, or the cap if there are at least that many
+     */
+    public long countSolutions(int[][] puzzle, long cap) {
+        return solutionCounter.countSolutions(puzzle, cap);
+    }
+
+    /**
+     * Counts every solution of a puzzle, splitting the search across all available cores.
+     * Intended for puzzles with very large solution sets.
+     *
+     * @param puzzle the Sudoku puzzle to count solutions for
+     * @return the total number of solutions
+     */
+    public long countSolutionsParallel(int[][] puzzle) {
+        return solutionCounter.countSolutionsParallel(puzzle);
+    }
+
+    /**
+     * Starts an interactive session for a puzzle that a player is solving move by move.
+     * The session updates candidates incrementally and caches solutions between moves.
+     *
+     * @param puzzle the Sudoku puzzle to play
+     * @return a new session holding a copy of the puzzle
+     */
+    public SolvingSession startSession(int[][] puzzle) {
+        return new SolvingSession(puzzle);
+    }
+
+    /**
+     * Optional verification stage after solving: checks that every solution is a valid grid
+     * (each row, column and box holds every digit once) and keeps all clues of the puzzle.
+     *
+     * @param puzzle    the puzzle that was solved
+     * @param solutions the solutions returned by any of the solvers
+     * @return the indices of the invalid solutions (empty if all are valid)
+     */
+    public int[] verifySolutions(int[][] puzzle, List<int[][]> solutions) {
+        return new SolutionValidator(puzzle.length).findInvalid(puzzle, solutions);
+    }
+
+    /**
+     * Solves many puzzles of the same size together, propagating constraints across the whole
+     * batch in lockstep and searching individually only where propagation is not enough.
+     *
+     * Statistics of the last batch are available from {@link #getBatchSolver(int)}.
+     *
+     * @param puzzles the puzzles to solve
+     * @return one entry per puzzle, in order: its solution, or null if it has none
+     */
+    public List<int[][]> solveBatch(List<int[][]> puzzles) {
+        if (puzzles.isEmpty()) return puzzles;
+        return getBatchSolver(puzzles.get(0).length).solveBatch(puzzles);
+    }
+
+    /**
+     * Returns the batch solver used for grids of the given size, creating it on first use.
+     * Its getters report how the last batch of that size was solved (propagation, search, unsolvable).
+     *
+     * @param gridSize the grid size (e.g., 9)
+     * @return the batch solver for that size
+     */
+    public BatchSolver getBatchSolver(int gridSize) {
+        return batchSolvers.computeIfAbsent(gridSize, BatchSolver::new);
+    }
+
+    /**
+     * Rates a puzzle by solving it with human techniques, simplest first.
+     *
+     * @param puzzle the Sudoku puzzle to rate
+     * @return the score and the hardest technique needed
+     */
+    public DifficultyGrader.Grade gradeDifficulty(int[][] puzzle) {
+        return difficultyGrader.grade(puzzle);
+    }
+
+    /**
+     * Rates many puzzles in parallel.
+     *
+     * @param puzzles the puzzles to rate
+     * @return one grade per puzzle, in the same order
+     */
+    public List<DifficultyGrader.Grade> gradeDifficulty(List<int[][]> puzzles) {
+        return difficultyGrader.gradeAll(puzzles, Integer.MAX_VALUE);
+    }
 }
\ No newline at end of file
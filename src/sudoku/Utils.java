@@ -44,6 +44,22 @@ public class Utils {
         }
     }
 
+    /**
+     * Counts the filled (non-zero) cells of a grid.
+     *
+     * @param puzzle the Sudoku puzzle
+     * @return the number of clues in the puzzle
+     */
+    public static int countClues(int[][] puzzle) {
+        int clues = 0;
+        for (int[] row : puzzle) {
+            for (int cell : row) {
+                if (cell != 0) clues++;
+            }
+        }
+        return clues;
+    }
+
     /**
      * Generates column headers for the Sudoku grid.
      * Helps users identify columns when solving or debugging puzzles.
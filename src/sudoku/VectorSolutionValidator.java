@@ -0,0 +1,86 @@
+package sudoku;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorSolutionValidator.java
+ *
+ * SIMD path of {@link SolutionValidator}, built on the incubating Vector API (jdk.incubator.vector).
+ * Each vector lane holds one grid, so a single vector operation checks the same cell of
+ * SPECIES.length() grids at once (8 lanes with AVX2, 16 with AVX-512).
+ *
+ * A group of grids is first transposed from the packed one-byte-per-cell layout into a lane-major
+ * int buffer, so that cell #c of every grid in the group sits in one contiguous vector. Each value
+ * becomes a digit bit through a lane-wise shift (values outside 1..gridSize become bit 0), and the
+ * bits are OR-ed into one mask vector per row, column and box. A lane whose masks all equal the
+ * "all digits" mask is a valid grid.
+ *
+ * The module is only resolved when the JVM is started with --add-modules jdk.incubator.vector, so
+ * this class must not be touched otherwise; SolutionValidator checks the boot layer before using it.
+ */
+class VectorSolutionValidator {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final int gridSize;
+    private final int cellsPerGrid;
+    private final int full;             // Bits 1..gridSize set
+    private final int[] boxOf;          // Box index of each cell
+
+    VectorSolutionValidator(int gridSize, int[] boxOf) {
+        this.gridSize = gridSize;
+        this.cellsPerGrid = gridSize * gridSize;
+        this.full = ((1 << gridSize) - 1) << 1;
+        this.boxOf = boxOf;
+    }
+
+    // Validate grids [from, to) and mark the invalid ones, SPECIES.length() grids at a time
+    void validateRange(byte[] grids, int from, int to, boolean[] invalid) {
+        int lanes = SPECIES.length();
+        int[] cells = new int[cellsPerGrid * lanes]; // Lane-major: cells[cell * lanes + lane]
+        int[] colMask = new int[gridSize * lanes], boxMask = new int[gridSize * lanes];
+        IntVector one = IntVector.broadcast(SPECIES, 1);
+        IntVector zero = IntVector.zero(SPECIES);
+
+        for (int group = from; group < to; group += lanes) {
+            int used = Math.min(lanes, to - group);
+            for (int lane = 0; lane < used; lane++) {
+                int base = (group + lane) * cellsPerGrid;
+                for (int cell = 0; cell < cellsPerGrid; cell++) {
+                    cells[cell * lanes + lane] = grids[base + cell] & 0xFF;
+                }
+            }
+            Arrays.fill(colMask, 0);
+            Arrays.fill(boxMask, 0);
+
+            IntVector difference = zero;
+            for (int row = 0, cell = 0; row < gridSize; row++) {
+                IntVector rowMask = zero;
+                for (int col = 0; col < gridSize; col++, cell++) {
+                    IntVector value = IntVector.fromArray(SPECIES, cells, cell * lanes);
+                    VectorMask<Integer> valid = value.compare(VectorOperators.GE, 1)
+                            .and(value.compare(VectorOperators.LE, gridSize));
+                    // Digit d becomes bit d; anything else becomes 0, which leaves its unit incomplete
+                    IntVector bit = zero.blend(one.lanewise(VectorOperators.LSHL, value), valid);
+                    rowMask = rowMask.or(bit);
+                    int colOffset = col * lanes, boxOffset = boxOf[cell] * lanes;
+                    IntVector.fromArray(SPECIES, colMask, colOffset).or(bit).intoArray(colMask, colOffset);
+                    IntVector.fromArray(SPECIES, boxMask, boxOffset).or(bit).intoArray(boxMask, boxOffset);
+                }
+                difference = difference.or(rowMask.lanewise(VectorOperators.XOR, full));
+            }
+            for (int i = 0; i < gridSize; i++) {
+                difference = difference
+                        .or(IntVector.fromArray(SPECIES, colMask, i * lanes).lanewise(VectorOperators.XOR, full))
+                        .or(IntVector.fromArray(SPECIES, boxMask, i * lanes).lanewise(VectorOperators.XOR, full));
+            }
+
+            VectorMask<Integer> bad = difference.compare(VectorOperators.NE, 0);
+            for (int lane = 0; lane < used; lane++) invalid[group + lane] = bad.laneIsSet(lane);
+        }
+    }
+}